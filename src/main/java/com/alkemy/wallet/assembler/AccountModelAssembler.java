@@ -3,11 +3,19 @@ package com.alkemy.wallet.assembler;
 import com.alkemy.wallet.assembler.model.AccountModel;
 import com.alkemy.wallet.controller.AccountController;
 import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.beans.BeanUtils;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 @Hidden
 @Component
 public class AccountModelAssembler
@@ -24,4 +32,18 @@ public class AccountModelAssembler
         return model;
     }
 
+    /**
+     * Wraps a keyset slice; the {@code next} link carries the opaque cursor of the following slice.
+     */
+    public CollectionModel<AccountModel> toKeysetModel(KeysetPageDto<AccountDto> page, String cursor) {
+        CollectionModel<AccountModel> model = CollectionModel.of(page.getContent().stream()
+                .map(this::toModel)
+                .collect(Collectors.toList()));
+        model.add(linkTo(methodOn(AccountController.class).getTransactionPage(null, cursor, false)).withSelfRel());
+        if (page.getNext() != null) {
+            model.add(linkTo(methodOn(AccountController.class).getTransactionPage(null, page.getNext(), false))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return model;
+    }
 }
@@ -3,11 +3,19 @@ package com.alkemy.wallet.assembler;
 import com.alkemy.wallet.assembler.model.TransactionModel;
 import com.alkemy.wallet.controller.TransactionsController;
 import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.beans.BeanUtils;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 @Hidden
 @Component
 public class TransactionModelAssembler extends RepresentationModelAssemblerSupport<ResponseTransactionDto, TransactionModel> {
@@ -22,4 +30,27 @@ public class TransactionModelAssembler extends RepresentationModelAssemblerSuppo
         BeanUtils.copyProperties(dto, model);
         return model;
     }
+
+    /**
+     * Wraps a slice of a user's history with {@code next} (older) and {@code prev} (newer) cursor links.
+     */
+    public CollectionModel<TransactionModel> toKeysetModel(Long userId, KeysetPageDto<ResponseTransactionDto> page,
+                                                           String cursor, int size) {
+        CollectionModel<TransactionModel> model = CollectionModel.of(page.getContent().stream()
+                .map(this::toModel)
+                .collect(Collectors.toList()));
+        model.add(linkTo(methodOn(TransactionsController.class).getTransactionPage(userId, null, cursor, size))
+                .withSelfRel());
+        if (page.getNext() != null) {
+            model.add(linkTo(methodOn(TransactionsController.class)
+                    .getTransactionPage(userId, null, page.getNext(), size))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        if (page.getPrev() != null) {
+            model.add(linkTo(methodOn(TransactionsController.class)
+                    .getTransactionPage(userId, null, page.getPrev(), size))
+                    .withRel(IanaLinkRelations.PREV));
+        }
+        return model;
+    }
 }
@@ -3,11 +3,19 @@ package com.alkemy.wallet.assembler;
 import com.alkemy.wallet.assembler.model.UserModel;
 import com.alkemy.wallet.controller.UserController;
 import com.alkemy.wallet.dto.ResponseUserDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.beans.BeanUtils;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 @Hidden
 @Component
 public class UserModelAssembler
@@ -23,4 +31,19 @@ public class UserModelAssembler
         BeanUtils.copyProperties(dto, model);
         return model;
     }
+
+    /**
+     * Wraps a keyset slice; the {@code next} link carries the opaque cursor of the following slice.
+     */
+    public CollectionModel<UserModel> toKeysetModel(KeysetPageDto<ResponseUserDto> page, String cursor) {
+        CollectionModel<UserModel> model = CollectionModel.of(page.getContent().stream()
+                .map(this::toModel)
+                .collect(Collectors.toList()));
+        model.add(linkTo(methodOn(UserController.class).getUserPage(null, cursor, false)).withSelfRel());
+        if (page.getNext() != null) {
+            model.add(linkTo(methodOn(UserController.class).getUserPage(null, page.getNext(), false))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return model;
+    }
 }
@@ -1,5 +1,6 @@
 package com.alkemy.wallet.assembler.model;
 
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.enums.Currency;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -19,9 +20,9 @@ public class AccountModel extends RepresentationModel<AccountModel>  {
 
     private Currency currency;
 
-    private Double transactionLimit;
+    private Money transactionLimit;
 
-    private Double balance;
+    private Money balance;
 
     private boolean softDelete;
 
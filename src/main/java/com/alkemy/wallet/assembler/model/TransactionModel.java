@@ -1,5 +1,6 @@
 package com.alkemy.wallet.assembler.model;
 
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.dto.BasicAccountDto;
 import com.alkemy.wallet.model.enums.TypeOfTransaction;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -18,7 +19,7 @@ public class TransactionModel extends RepresentationModel<TransactionModel> {
 
     private Long id;
 
-    private Double amount;
+    private Money amount;
 
     private TypeOfTransaction type;
 
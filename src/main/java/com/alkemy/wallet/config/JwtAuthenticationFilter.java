@@ -0,0 +1,84 @@
+package com.alkemy.wallet.config;
+
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.util.JwtUtil;
+import com.alkemy.wallet.util.UserPrincipal;
+import io.jsonwebtoken.JwtException;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authenticates each request from its bearer token: the signature and expiry are
+ * checked and the principal is built from the id, email and role claims, without a
+ * session. The claims are then compared with the user as {@code UserCache} holds it,
+ * so a token of a soft deleted user, or one issued before a role change, stops working
+ * once the cached entry is evicted or expires instead of when the token does. Requests
+ * without a valid token go on anonymous and are rejected by the authorization rules if
+ * the endpoint needs a user.
+ */
+@Hidden
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+
+    private final UserDetailsService userDetailsService;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            try {
+                UserPrincipal principal = jwtUtil.getPrincipal(header.substring(BEARER.length()).trim());
+                if (!isCurrent(principal)) {
+                    log.debug("Rejected bearer token of a deleted or changed user: {}", principal.getEmail());
+                    SecurityContextHolder.clearContext();
+                    chain.doFilter(request, response);
+                    return;
+                }
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Rejected bearer token: {}", e.getMessage());
+                SecurityContextHolder.clearContext();
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean isCurrent(UserPrincipal principal) {
+        try {
+            UserPrincipal stored = (UserPrincipal) userDetailsService.loadUserByUsername(principal.getEmail());
+            return stored.isEnabled()
+                    && stored.getId().equals(principal.getId())
+                    && stored.getRole() == principal.getRole();
+        } catch (ResourceNotFoundException | UsernameNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.alkemy.wallet.config;
 
+import com.alkemy.wallet.service.CUserDetailsService;
+import com.alkemy.wallet.util.BoundedPasswordEncoder;
+import com.alkemy.wallet.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.support.ResourceBundleMessageSource;
@@ -10,9 +15,13 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.time.Duration;
 
 
 @Hidden
@@ -21,18 +30,24 @@ import org.springframework.security.web.SecurityFilterChain;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final JwtUtil jwtUtil;
+
     @Bean
-    public SecurityFilterChain basicFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain basicFilterChain(HttpSecurity http, CUserDetailsService userDetailsService) throws Exception {
         return http
                 .csrf().disable()
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeRequests(auth -> {
                     auth
                             .antMatchers("/api/**", "/swagger-ui/**", "/javainuse-openapi/**",
-                                    "/auth/**", "/fixedTermDeposit/simulate").permitAll();
+                                    "/auth/**", "/fixedTermDeposit/simulate").permitAll()
+                            .antMatchers("/actuator/health").permitAll()
+                            .antMatchers("/actuator/**").hasAuthority("ROLE_ADMIN");
 
                 })
 
-                //.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, userDetailsService),
+                        UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
 
@@ -43,8 +58,15 @@ public class SecurityConfig {
     }
 
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength,
+                                    @Value("${security.bcrypt.threads:0}") int threads,
+                                    @Value("${security.bcrypt.queue-capacity:100}") int queueCapacity,
+                                    @Value("${security.bcrypt.retry-after:1s}") Duration retryAfter,
+                                    MessageSource messageSource,
+                                    MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, retryAfter, messageSource, meterRegistry);
     }
 
     @Bean
@@ -4,12 +4,18 @@ import com.alkemy.wallet.assembler.AccountModelAssembler;
 import com.alkemy.wallet.assembler.model.AccountModel;
 import com.alkemy.wallet.dto.AccountDto;
 import com.alkemy.wallet.dto.AccountUpdateDto;
+import com.alkemy.wallet.dto.BalanceAtDto;
 import com.alkemy.wallet.dto.BalanceDto;
 import com.alkemy.wallet.dto.BasicAccountDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
+import com.alkemy.wallet.dto.LedgerRebuildDto;
 import com.alkemy.wallet.mapper.Mapper;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.IUserRepository;
 import com.alkemy.wallet.service.interfaces.IAccountService;
+import com.alkemy.wallet.service.interfaces.IBalanceHistoryService;
+import com.alkemy.wallet.service.interfaces.IHotAccountService;
+import com.alkemy.wallet.service.interfaces.ILedgerService;
 import com.alkemy.wallet.service.interfaces.IUserService;
 import com.alkemy.wallet.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,19 +28,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/accounts")
 public class AccountController {
 
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -44,6 +54,15 @@ public class AccountController {
     @Autowired
     private IUserService userService;
 
+    @Autowired
+    private ILedgerService ledgerService;
+
+    @Autowired
+    private IHotAccountService hotAccountService;
+
+    @Autowired
+    private IBalanceHistoryService balanceHistoryService;
+
     @Autowired
     private IAccountRepository accountRepository;
 
@@ -73,10 +92,7 @@ public class AccountController {
             @ApiResponse(responseCode = "403", description = "Access denied",
                     content = {@Content(mediaType = "application/json")})})
     public ResponseEntity<List<BasicAccountDto>> getAllAccountByUserId(@PathVariable Long userId) throws EmptyResultDataAccessException {
-        List<BasicAccountDto> accounts = accountService.getAccountsByUserId(userId).stream()
-                .map(account -> mapper.getMapper().map(account, BasicAccountDto.class))
-                .collect(Collectors.toList());
-        return ResponseEntity.status(HttpStatus.OK).body(accounts);
+        return ResponseEntity.status(HttpStatus.OK).body(accountService.getBasicAccountsByUserId(userId));
     }
 
     @GetMapping
@@ -90,12 +106,24 @@ public class AccountController {
                     content = {@Content(mediaType = "application/json")}),
             @ApiResponse(responseCode = "403", description = "Access denied",
                     content = {@Content(mediaType = "application/json")})})
-    public ResponseEntity<PagedModel<AccountModel>> getTransactionPage(@RequestParam(defaultValue = "0") int page) {
-        Page<AccountDto> accounts = accountService.findAllAccountsPageable(page);
-
-        PagedModel<AccountModel> model = pagedResourcesAssembler.toModel(accounts, accountModelAssembler);
-
-        return ResponseEntity.ok().body(model);
+    public ResponseEntity<CollectionModel<AccountModel>> getTransactionPage(
+            @Parameter(description = "Legacy offset paging; prefer the cursor of the next link")
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        if (page != null) {
+            Page<AccountDto> accounts = accountService.findAllAccountsPageable(page);
+
+            PagedModel<AccountModel> model = pagedResourcesAssembler.toModel(accounts, accountModelAssembler);
+
+            return ResponseEntity.ok().body(model);
+        }
+        KeysetPageDto<AccountDto> accounts = accountService.findAccountsAfter(cursor, includeTotal);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (accounts.getTotal() != null) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(accounts.getTotal()));
+        }
+        return response.body(accountModelAssembler.toKeysetModel(accounts, cursor));
     }
 
     @PostMapping
@@ -151,4 +179,54 @@ public class AccountController {
     public ResponseEntity<List<BalanceDto>> getBalance() {
         return ResponseEntity.ok(accountService.getBalance());
     }
-}
\ No newline at end of file
+
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @PostMapping("/balance/rebuild")
+    @Operation(summary = "Rebuild balances",
+            description = "Recomputes every account balance from its transactions",
+            tags = "Account Controller")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Balances rebuilt",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = LedgerRebuildDto.class))}),
+            @ApiResponse(responseCode = "403", description = "Access denied",
+                    content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<LedgerRebuildDto> rebuildBalances() {
+        return ResponseEntity.ok(ledgerService.rebuildBalances());
+    }
+
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @PutMapping("/{id}/hot")
+    @Operation(summary = "Mark account as hot",
+            description = "Splits the account balance in the given number of shards to spread concurrent credits; 0 turns it off",
+            tags = "Account Controller")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Balance shards updated",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = AccountDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid number of shards",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "403", description = "Access denied",
+                    content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<AccountDto> markHot(@PathVariable Long id, @RequestParam int shards) {
+        return ResponseEntity.ok(hotAccountService.markHot(id, shards));
+    }
+
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    @GetMapping("/{id}/balance")
+    @Operation(summary = "Get balance at a point in time",
+            description = "Rebuilds the account balance at the given instant from the nearest snapshot and the later transactions",
+            tags = "Account Controller",
+            parameters = {@Parameter(name = "id", description = "Account id"),
+                    @Parameter(name = "at", description = "ISO-8601 instant, e.g. 2022-10-01T00:00:00Z")})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Balance found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BalanceAtDto.class))}),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "403", description = "Access denied",
+                    content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<BalanceAtDto> getBalanceAt(@PathVariable Long id, @RequestParam Instant at) {
+        return ResponseEntity.ok(balanceHistoryService.getBalanceAt(id, at));
+    }
+}
@@ -2,11 +2,19 @@ package com.alkemy.wallet.controller;
 
 import com.alkemy.wallet.assembler.TransactionModelAssembler;
 import com.alkemy.wallet.assembler.model.TransactionModel;
+import com.alkemy.wallet.dto.BatchTransactionResultDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
 import com.alkemy.wallet.dto.RequestTransactionDto;
 import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransactionFilterDto;
+import com.alkemy.wallet.dto.TransferRequestStatusDto;
 import com.alkemy.wallet.mapper.Mapper;
+import com.alkemy.wallet.model.enums.ExportFormat;
 import com.alkemy.wallet.repository.ITransactionRepository;
 import com.alkemy.wallet.service.interfaces.IAccountService;
+import com.alkemy.wallet.service.interfaces.IAsyncTransferService;
+import com.alkemy.wallet.service.interfaces.IIdempotencyService;
+import com.alkemy.wallet.service.interfaces.ITransactionExportService;
 import com.alkemy.wallet.service.interfaces.ITransactionService;
 import com.alkemy.wallet.service.interfaces.IUserService;
 import com.alkemy.wallet.util.JwtUtil;
@@ -16,19 +24,35 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.HashSet;
+import javax.validation.Valid;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 public class TransactionsController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    static final String PREFER = "Prefer";
+
+    static final String RESPOND_ASYNC = "respond-async";
+
     @Autowired
     private ITransactionRepository transactionRepository;
 
@@ -51,6 +75,15 @@ public class TransactionsController {
     @Autowired
     private IUserService userService;
 
+    @Autowired
+    private IIdempotencyService idempotencyService;
+
+    @Autowired
+    private IAsyncTransferService asyncTransferService;
+
+    @Autowired
+    private ITransactionExportService transactionExportService;
+
     @PreAuthorize("hasAnyAuthority('ROLE_USER')")
     @GetMapping("/transactions/{userId}")
     @Operation(summary = "Get user's transactions",
@@ -61,12 +94,61 @@ public class TransactionsController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Accounts found",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ResponseTransactionDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Amount filter with more than 2 decimals or too large",
+                    content = {@Content(mediaType = "application/json")}),
             @ApiResponse(responseCode = "404", description = "Nothing found",
                     content = {@Content(mediaType = "application/json")}),
             @ApiResponse(responseCode = "403", description = "Access denied",
                     content = {@Content(mediaType = "application/json")})})
-    public HashSet<ResponseTransactionDto> getTransactions(@PathVariable Long userId) {
-        return transactionService.getByUserId(accountService.getAccountsByUserId(userId));
+    public List<ResponseTransactionDto> getTransactions(
+            @PathVariable Long userId,
+            @Valid @ParameterObject TransactionFilterDto filter,
+            @RequestParam(defaultValue = "${wallet.transactions.page.default-size:10}") int size) {
+        transactionExportService.checkHistoryAllowed(userId);
+        return transactionService.getByUserId(userId, filter, size);
+    }
+
+    @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_ADMIN')")
+    @GetMapping("/transactions/{userId}/export")
+    @Operation(summary = "Export user's transactions",
+            description = "Streams the user's transactions, oldest first, as CSV or newline delimited JSON",
+            tags = "Transaction Controller",
+            parameters = {
+                    @Parameter(name = "from", description = "Inclusive ISO-8601 instant, e.g. 2022-10-01T00:00:00Z"),
+                    @Parameter(name = "to", description = "Exclusive ISO-8601 instant"),
+                    @Parameter(name = "gzip", description = "Compress the stream (Content-Encoding: gzip)")})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transactions exported",
+                    content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}),
+            @ApiResponse(responseCode = "403", description = "Access denied",
+                    content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "csv") ExportFormat format,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        transactionExportService.checkHistoryAllowed(userId);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                transactionExportService.export(userId, format, from, to, compressed);
+                compressed.finish();
+            } else {
+                transactionExportService.export(userId, format, from, to, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions-" + userId + "." + format.getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @PreAuthorize("hasAnyAuthority('ROLE_USER')")
@@ -123,13 +205,22 @@ public class TransactionsController {
                     content = {@Content(mediaType = "application/json")}),
             @ApiResponse(responseCode = "403", description = "Access denied",
                     content = {@Content(mediaType = "application/json")})})
-    public ResponseEntity<PagedModel<TransactionModel>> getTransactionPage(@PathVariable Long userId, @RequestParam(defaultValue = "0") int page) {
+    public ResponseEntity<CollectionModel<TransactionModel>> getTransactionPage(
+            @PathVariable Long userId,
+            @Parameter(description = "Legacy offset paging; prefer the cursors of the next and prev links")
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${wallet.transactions.page.default-size:10}") int size) {
+        if (page != null) {
+            Page<ResponseTransactionDto> transactions = transactionService.findAllTransactionsByUserIdPageable(userId, page);
 
-        Page<ResponseTransactionDto> transactions = transactionService.findAllTransactionsByUserIdPageable(userId, page);
+            PagedModel<TransactionModel> model = pagedResourcesAssembler.toModel(transactions, transactionModelAssembler);
 
-        PagedModel<TransactionModel> model = pagedResourcesAssembler.toModel(transactions, transactionModelAssembler);
+            return ResponseEntity.ok().body(model);
+        }
+        KeysetPageDto<ResponseTransactionDto> transactions = transactionService.findTransactionsByUserId(userId, cursor, size);
 
-        return ResponseEntity.ok().body(model);
+        return ResponseEntity.ok().body(transactionModelAssembler.toKeysetModel(userId, transactions, cursor, size));
     }
 
     @PreAuthorize("hasAnyAuthority('ROLE_USER')")
@@ -142,15 +233,26 @@ public class TransactionsController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transaction generated",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = RequestTransactionDto.class))}),
+            @ApiResponse(responseCode = "202", description = "Transfer queued, poll the Location URL",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = TransferRequestStatusDto.class))}),
             @ApiResponse(responseCode = "400", description = "Something went wrong",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "503", description = "Transfer queue full, retry after the Retry-After seconds",
                     content = {@Content(mediaType = "application/json")})})
-    public ResponseEntity<Object> sendUsd(
+    public ResponseEntity<?> sendUsd(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+            @Parameter(description = "Optional key; a retry with the same key replays the first response")
+            String idempotencyKey,
+            @RequestHeader(value = PREFER, required = false)
+            @Parameter(description = "Send 'respond-async' to queue the transfer and get 202 with a status URL")
+            String prefer,
             @RequestBody
             @Parameter(name = "TransactionDto",
                     description = "Transaction info and destined account",
                     required = true)
             RequestTransactionDto destinedTransactionDto) {
-        return transactionService.makeTransaction(destinedTransactionDto);
+        return idempotencyService.execute(idempotencyKey, "sendUsd", destinedTransactionDto,
+                () -> send(prefer, destinedTransactionDto));
     }
 
     @PreAuthorize("hasAnyAuthority('ROLE_USER')")
@@ -163,14 +265,61 @@ public class TransactionsController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transaction generated",
                     content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ResponseTransactionDto.class))}),
+            @ApiResponse(responseCode = "202", description = "Transfer queued, poll the Location URL",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = TransferRequestStatusDto.class))}),
             @ApiResponse(responseCode = "400", description = "Something went wrong",
+                    content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "503", description = "Transfer queue full, retry after the Retry-After seconds",
                     content = {@Content(mediaType = "application/json")})})
-    public ResponseEntity<Object> sendArs(
+    public ResponseEntity<?> sendArs(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+            @Parameter(description = "Optional key; a retry with the same key replays the first response")
+            String idempotencyKey,
+            @RequestHeader(value = PREFER, required = false)
+            @Parameter(description = "Send 'respond-async' to queue the transfer and get 202 with a status URL")
+            String prefer,
             @RequestBody
             @Parameter(name = "Transaction info and destined account",
                     required = true)
             RequestTransactionDto destinedTransactionDto) {
-        return transactionService.makeTransaction(destinedTransactionDto);
+        return idempotencyService.execute(idempotencyKey, "sendArs", destinedTransactionDto,
+                () -> send(prefer, destinedTransactionDto));
+    }
+
+    @PreAuthorize("hasAnyAuthority('ROLE_USER')")
+    @GetMapping("/transactions/requests/{id}")
+    @Operation(summary = "Get transfer request status",
+            description = "Provides the state of a transfer sent with Prefer: respond-async",
+            tags = "Transaction Controller",
+            parameters = @Parameter(name = "Request id",
+                    description = "Id returned when the transfer was queued"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Request found",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = TransferRequestStatusDto.class))}),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired request",
+                    content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<TransferRequestStatusDto> getTransferRequest(@PathVariable String id) {
+        return ResponseEntity.ok(asyncTransferService.getStatus(id));
+    }
+
+    @PreAuthorize("hasAnyAuthority('ROLE_USER')")
+    @PostMapping("/transactions/batch")
+    @Operation(summary = "Send a batch of transactions",
+            description = "Generates several transactions from a logged user in one request, reporting the result of each one",
+            tags = "Transaction Controller",
+            parameters = @Parameter(name = "TransactionDto list",
+                    description = "Transactions info and destined accounts"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = BatchTransactionResultDto.class))}),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch",
+                    content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<List<BatchTransactionResultDto>> sendBatch(
+            @RequestBody
+            @Parameter(name = "TransactionDto list",
+                    required = true)
+            List<RequestTransactionDto> transactionDtos) {
+        return ResponseEntity.ok(transactionService.makeTransactions(transactionDtos));
     }
 
     @PostMapping("/transactions/deposit")
@@ -187,11 +336,15 @@ public class TransactionsController {
             @ApiResponse(responseCode = "403", description = "Limit exceeded",
                     content = {@Content(mediaType = "application/json")})})
     public ResponseEntity<?> postDeposit(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+            @Parameter(description = "Optional key; a retry with the same key replays the first response")
+            String idempotencyKey,
             @Parameter(name = "Deposit info",
                     required = true)
             @RequestBody RequestTransactionDto transactionDto) {
 
-        return transactionService.createDeposit(transactionDto);
+        return idempotencyService.execute(idempotencyKey, "deposit", transactionDto,
+                () -> transactionService.createDeposit(transactionDto));
     }
 
     @PreAuthorize("hasAnyAuthority('ROLE_USER')")
@@ -209,10 +362,25 @@ public class TransactionsController {
             @ApiResponse(responseCode = "403", description = "Limit exceeded",
                     content = {@Content(mediaType = "application/json")})})
     public ResponseEntity<?> postPayment(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+            @Parameter(description = "Optional key; a retry with the same key replays the first response")
+            String idempotencyKey,
             @Parameter(name = "Payment info",
                     required = true)
             @RequestBody RequestTransactionDto transactionDto) {
 
-        return transactionService.createPayment(transactionDto);
+        return idempotencyService.execute(idempotencyKey, "payment", transactionDto,
+                () -> transactionService.createPayment(transactionDto));
+    }
+
+    private ResponseEntity<?> send(String prefer, RequestTransactionDto destinedTransactionDto) {
+        if (prefer == null || !prefer.contains(RESPOND_ASYNC)) {
+            return transactionService.makeTransaction(destinedTransactionDto);
+        }
+        TransferRequestStatusDto request = asyncTransferService.submit(destinedTransactionDto);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/transactions/requests/{id}").buildAndExpand(request.getId()).toUri())
+                .body(request);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.alkemy.wallet.controller;
 
 import com.alkemy.wallet.assembler.UserModelAssembler;
 import com.alkemy.wallet.assembler.model.UserModel;
+import com.alkemy.wallet.dto.KeysetPageDto;
 import com.alkemy.wallet.dto.RequestUserDto;
 import com.alkemy.wallet.dto.ResponseUserDto;
 import com.alkemy.wallet.service.interfaces.ICustomUserDetailsService;
@@ -88,7 +89,19 @@ public class UserController {
                 content = {@Content(mediaType = "application/json")}),
         @ApiResponse(responseCode = "403", description = "Access denied",
                 content = {@Content(mediaType = "application/json")})})
-    public ResponseEntity<?> getUserPage(@RequestParam(defaultValue = "0") int page) {
+    public ResponseEntity<?> getUserPage(
+            @Parameter(description = "Legacy offset paging; prefer the cursor of the next link")
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        if (page == null) {
+            KeysetPageDto<ResponseUserDto> users = customUserDetailsService.findUsersAfter(cursor, includeTotal);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (users.getTotal() != null) {
+                response.header(AccountController.TOTAL_COUNT_HEADER, String.valueOf(users.getTotal()));
+            }
+            return response.body(userModelAssembler.toKeysetModel(users, cursor));
+        }
         try {
             Page<ResponseUserDto> users = customUserDetailsService.findAllUsersPageable(page);
             PagedModel<UserModel> model = pagedResourcesAssembler.toModel(users, userModelAssembler);
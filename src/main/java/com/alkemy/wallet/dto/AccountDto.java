@@ -1,5 +1,6 @@
 package com.alkemy.wallet.dto;
 
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.enums.Currency;
 import lombok.*;
 
@@ -13,9 +14,9 @@ public class AccountDto {
 
     private Currency currency;
 
-    private Double transactionLimit;
+    private Money transactionLimit;
 
-    private Double balance;
+    private Money balance;
 
 //    private boolean softDelete;
 
@@ -1,5 +1,6 @@
 package com.alkemy.wallet.dto;
 
+import com.alkemy.wallet.model.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,6 @@ import javax.validation.constraints.NotNull;
 public class AccountUpdateDto {
 
     @NotNull(message = "{transactionlimit.notnull")
-    private Double transactionLimit;
+    private Money transactionLimit;
 }
 
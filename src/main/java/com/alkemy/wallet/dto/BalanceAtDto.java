@@ -0,0 +1,25 @@
+package com.alkemy.wallet.dto;
+
+import com.alkemy.wallet.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceAtDto {
+
+    private Long accountId;
+
+    private Instant at;
+
+    private Money balance;
+
+    private Instant snapshotAt;
+
+    private long replayedTransactions;
+
+}
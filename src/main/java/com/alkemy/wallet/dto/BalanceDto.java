@@ -1,5 +1,6 @@
 package com.alkemy.wallet.dto;
 
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.enums.Currency;
 import lombok.*;
 
@@ -13,7 +14,7 @@ public class BalanceDto {
 
     private Long id;
 
-    private Double balance;
+    private Money balance;
 
     private Currency currency;
 
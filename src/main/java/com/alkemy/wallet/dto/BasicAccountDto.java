@@ -1,5 +1,6 @@
 package com.alkemy.wallet.dto;
 
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.enums.Currency;
 import lombok.*;
 
@@ -16,9 +17,9 @@ public class BasicAccountDto {
     @NotNull
     private Currency currency;
 
-    private Double transactionLimit;
+    private Money transactionLimit;
 
-    private Double balance;
+    private Money balance;
 
     private Long userId;
 
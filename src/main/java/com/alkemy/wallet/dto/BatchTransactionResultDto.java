@@ -0,0 +1,51 @@
+package com.alkemy.wallet.dto;
+
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchTransactionResultDto {
+
+    private int index;
+
+    private HttpStatus status;
+
+    private ResponseTransactionDto transaction;
+
+    private String error;
+
+    @JsonIgnore
+    private RuntimeException exception;
+
+    public static BatchTransactionResultDto succeeded(int index, ResponseTransactionDto transaction) {
+        return BatchTransactionResultDto.builder()
+                .index(index)
+                .status(HttpStatus.OK)
+                .transaction(transaction)
+                .build();
+    }
+
+    public static BatchTransactionResultDto failed(int index, RuntimeException exception) {
+        return BatchTransactionResultDto.builder()
+                .index(index)
+                .status(exception instanceof ResourceNotFoundException ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST)
+                .error(exception.getMessage())
+                .exception(exception)
+                .build();
+    }
+
+    @JsonIgnore
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.alkemy.wallet.dto;
 
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.enums.Currency;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
@@ -19,11 +20,11 @@ public class FixedTermDto {
     private Long id;
 
     @NotNull(message = "{amount.notnull}")
-    private Double amount;
+    private Money amount;
 
     private Long accountId;
 
-    private Double interest;
+    private Money interest;
 
     @NotNull(message = "{creationdate.notnull}")
     @JsonFormat(pattern = "dd-MM-yyyy")
@@ -0,0 +1,27 @@
+package com.alkemy.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentResponseDto {
+
+    private int status;
+
+    /** SHA-256 of the request the key was first used with. */
+    private String requestHash;
+
+    private ResponseTransactionDto body;
+
+    /** Set instead of {@code body} when the transfer was queued with 202 Accepted. */
+    private TransferRequestStatusDto transferRequest;
+
+    /** Location header of a 202, where the queued transfer is polled. */
+    private String location;
+
+}
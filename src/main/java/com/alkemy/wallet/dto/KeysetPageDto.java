@@ -0,0 +1,29 @@
+package com.alkemy.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset paged listing. {@code next} and {@code prev} are the opaque cursors
+ * of the neighbouring slices, null when there is none or the listing only pages forward;
+ * {@code total} is only filled when asked for.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageDto<T> {
+
+    private List<T> content;
+
+    private String next;
+
+    private String prev;
+
+    private Long total;
+
+}
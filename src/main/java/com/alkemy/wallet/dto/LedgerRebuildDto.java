@@ -0,0 +1,18 @@
+package com.alkemy.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerRebuildDto {
+
+    private int partitions;
+
+    private int accounts;
+
+    private long elapsedMillis;
+
+}
@@ -1,5 +1,6 @@
 package com.alkemy.wallet.dto;
 
+import com.alkemy.wallet.model.Money;
 import lombok.Data;
 
 import java.util.Date;
@@ -7,7 +8,7 @@ import java.util.Date;
 @Data
 public class RequestTransactionDto {
 
-    private Double amount;
+    private Money amount;
 
     private String description;
 
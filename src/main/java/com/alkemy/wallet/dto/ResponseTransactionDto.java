@@ -1,17 +1,23 @@
 package com.alkemy.wallet.dto;
 
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.enums.Currency;
 import com.alkemy.wallet.model.enums.TypeOfTransaction;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.Date;
 
 @Data
+@NoArgsConstructor
 public class ResponseTransactionDto {
 
     private Long id;
 
-    private Double amount;
+    private String transferId;
+
+    private Money amount;
 
     private Date transactionDate;
 
@@ -21,4 +27,20 @@ public class ResponseTransactionDto {
 
     private AccountDto account;
 
+    /**
+     * Used by JPQL constructor expressions, which read the transaction and its
+     * account columns in one row instead of loading the entity graph.
+     */
+    public ResponseTransactionDto(Long id, String transferId, Money amount, Date transactionDate,
+                                  TypeOfTransaction type, String description, Long accountId,
+                                  Currency currency, Money transactionLimit, Money balance, Long userId) {
+        this.id = id;
+        this.transferId = transferId;
+        this.amount = amount;
+        this.transactionDate = transactionDate;
+        this.type = type;
+        this.description = description;
+        this.account = new AccountDto(accountId, currency, transactionLimit, balance, userId);
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.alkemy.wallet.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,12 @@ import javax.validation.constraints.NotEmpty;
 @AllArgsConstructor
 public class ResponseUserDto {
 
+    /**
+     * Only read as the keyset anchor of the users listing, never sent to clients.
+     */
+    @JsonIgnore
+    private Long id;
+
     @NotEmpty(message = "{firstname.notnull}")
     private String firstName;
 
@@ -26,4 +33,18 @@ public class ResponseUserDto {
 
     private String token;
 
+    /**
+     * Used by JPQL constructor expressions; the token is only set on login and sign up.
+     */
+    public ResponseUserDto(String firstName, String lastName, String email) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    public ResponseUserDto(Long id, String firstName, String lastName, String email) {
+        this(firstName, lastName, email);
+        this.id = id;
+    }
+
 }
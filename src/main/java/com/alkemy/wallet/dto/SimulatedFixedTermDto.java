@@ -1,5 +1,6 @@
 package com.alkemy.wallet.dto;
 
+import com.alkemy.wallet.model.Money;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.Data;
@@ -9,11 +10,11 @@ import java.time.LocalDate;
 @Data
 public class SimulatedFixedTermDto {
 
-    private Double amount;
+    private Money amount;
 
-    private Double interest;
+    private Money interest;
 
-    private Double totalAmount;
+    private Money totalAmount;
 
     @JsonFormat(pattern = "dd-MM-yyyy")
     private LocalDate creationDate;
@@ -0,0 +1,40 @@
+package com.alkemy.wallet.dto;
+
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.enums.TypeOfTransaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Digits;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Optional filters of the transaction history; null fields are not applied.
+ * {@code from} is inclusive and {@code to} exclusive, amounts are inclusive and are
+ * rejected when they have more than two decimals or do not fit an amount in cents.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionFilterDto {
+
+    private TypeOfTransaction type;
+
+    private Currency currency;
+
+    private Instant from;
+
+    private Instant to;
+
+    @Digits(integer = 15, fraction = 2, message = "{amount.filter.digits}")
+    private BigDecimal minAmount;
+
+    @Digits(integer = 15, fraction = 2, message = "{amount.filter.digits}")
+    private BigDecimal maxAmount;
+
+}
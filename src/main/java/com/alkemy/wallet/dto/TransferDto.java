@@ -0,0 +1,16 @@
+package com.alkemy.wallet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferDto {
+
+    private Long senderAccountId;
+
+    private RequestTransactionDto transaction;
+
+}
@@ -0,0 +1,34 @@
+package com.alkemy.wallet.dto;
+
+import com.alkemy.wallet.model.enums.TransferRequestState;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransferRequestStatusDto {
+
+    private String id;
+
+    private TransferRequestState state;
+
+    private HttpStatus status;
+
+    private ResponseTransactionDto transaction;
+
+    private String error;
+
+    private Instant submittedAt;
+
+    private Instant completedAt;
+
+}
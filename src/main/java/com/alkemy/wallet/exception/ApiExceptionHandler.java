@@ -3,9 +3,11 @@ package com.alkemy.wallet.exception;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -47,6 +49,23 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
                 ex, apiError, headers, apiError.getStatus(), request);
     }
 
+    @Override
+    protected ResponseEntity<Object> handleBindException(
+            BindException ex,
+            HttpHeaders headers,
+            HttpStatus status,
+            WebRequest request) {
+        List<String> errors = new ArrayList<String>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            errors.add(error.getField() + ": " + error.getDefaultMessage());
+        }
+
+        ApiException apiError =
+                new ApiException(HttpStatus.BAD_REQUEST, ex.getLocalizedMessage(), errors);
+        return handleExceptionInternal(
+                ex, apiError, headers, apiError.getStatus(), request);
+    }
+
     @Override
     protected ResponseEntity<Object> handleMissingServletRequestParameter(
             MissingServletRequestParameterException ex, HttpHeaders headers,
@@ -93,7 +112,8 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
 
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    @ExceptionHandler({FixedTermException.class, NotEnoughCashException.class})
+    @ExceptionHandler({FixedTermException.class, NotEnoughCashException.class, TransactionBatchException.class,
+            BalanceShardException.class, NoAmountException.class, InvalidCursorException.class})
     public ResponseEntity<Object> handleBadRequest(Exception exception) {
         ApiException apiException = ApiException.builder()
                 .status(HttpStatus.BAD_REQUEST)
@@ -116,7 +136,8 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
     @ResponseStatus(HttpStatus.CONFLICT)
-    @ExceptionHandler({ResourceFoundException.class})
+    @ExceptionHandler({ResourceFoundException.class, IdempotencyConflictException.class,
+            OptimisticLockingFailureException.class})
     @ResponseBody
     public ResponseEntity<Object> handleResourcesFound(Exception exception) {
         ApiException apiException = ApiException.builder()
@@ -150,4 +171,44 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
                 .build();
         return new ResponseEntity<>(apiException, HttpStatus.FORBIDDEN);
     }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler({TransferPipelineUnavailableException.class})
+    @ResponseBody
+    public ResponseEntity<Object> handleTransferPipelineUnavailable(Exception exception) {
+        ApiException apiException = ApiException.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .message(exception.getMessage())
+                .errors(List.of(ExceptionUtils.getRootCauseMessage(exception)))
+                .build();
+        return new ResponseEntity<>(apiException, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler({TransferQueueFullException.class})
+    @ResponseBody
+    public ResponseEntity<Object> handleTransferQueueFull(TransferQueueFullException exception) {
+        ApiException apiException = ApiException.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .message(exception.getMessage())
+                .errors(List.of(ExceptionUtils.getRootCauseMessage(exception)))
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(apiException);
+    }
+
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler({PasswordHashingBusyException.class})
+    @ResponseBody
+    public ResponseEntity<Object> handlePasswordHashingBusy(PasswordHashingBusyException exception) {
+        ApiException apiException = ApiException.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .message(exception.getMessage())
+                .errors(List.of(ExceptionUtils.getRootCauseMessage(exception)))
+                .build();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(apiException);
+    }
 }
@@ -0,0 +1,14 @@
+package com.alkemy.wallet.exception;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public class BalanceShardException extends RuntimeException {
+    public BalanceShardException() {
+        super();
+    }
+
+    public BalanceShardException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.alkemy.wallet.exception;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException() {
+        super();
+    }
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
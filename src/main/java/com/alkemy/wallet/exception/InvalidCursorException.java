@@ -0,0 +1,14 @@
+package com.alkemy.wallet.exception;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super();
+    }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
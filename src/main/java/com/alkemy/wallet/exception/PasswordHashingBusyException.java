@@ -0,0 +1,18 @@
+package com.alkemy.wallet.exception;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.alkemy.wallet.exception;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public class TransactionBatchException extends RuntimeException {
+    public TransactionBatchException() {
+        super();
+    }
+
+    public TransactionBatchException(String message) {
+        super(message);
+    }
+}
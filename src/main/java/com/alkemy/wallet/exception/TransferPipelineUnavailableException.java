@@ -0,0 +1,10 @@
+package com.alkemy.wallet.exception;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public class TransferPipelineUnavailableException extends RuntimeException {
+    public TransferPipelineUnavailableException(String message) {
+        super(message);
+    }
+}
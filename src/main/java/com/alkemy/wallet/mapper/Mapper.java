@@ -1,5 +1,6 @@
 package com.alkemy.wallet.mapper;
 
+import com.alkemy.wallet.model.Money;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.modelmapper.Conditions;
 import org.modelmapper.ModelMapper;
@@ -15,6 +16,7 @@ public class Mapper {
         var modelmapper = new ModelMapper();
         var config = modelmapper.getConfiguration();
         config.setPropertyCondition(Conditions.isNotNull());
+        modelmapper.addConverter(context -> context.getSource(), Money.class, Money.class);
         return modelmapper;
     }
 }
@@ -0,0 +1,31 @@
+package com.alkemy.wallet.mapper;
+
+import com.alkemy.wallet.model.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+@Hidden
+public class MoneyDeserializer extends StdDeserializer<Money> {
+
+    public MoneyDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            try {
+                return Money.of(new BigDecimal(parser.getText().trim()));
+            } catch (NumberFormatException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), "not a valid amount");
+            }
+        }
+        return Money.of(parser.getDecimalValue());
+    }
+}
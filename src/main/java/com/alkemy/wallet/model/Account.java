@@ -17,7 +17,8 @@ import java.util.Date;
 @AllArgsConstructor
 @RequiredArgsConstructor
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_accounts_user_currency", columnNames = {"user_id", "currency"}))
 
 public class Account {
 
@@ -32,11 +33,11 @@ public class Account {
 
     @NotNull(message = "{transactionlimit.notnull}")
     @Column(name = "transaction_limit", nullable = false)
-    private Double transactionLimit;
+    private Money transactionLimit;
 
     @NotNull(message = "{balance.notnull}")
     @Column(name = "balance")
-    private Double balance;
+    private Money balance;
 
     @ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.MERGE)
     @JoinColumn(name = "user_id")
@@ -50,16 +51,27 @@ public class Account {
     @UpdateTimestamp
     private Date updateDate;
 
+    /**
+     * Number of sub-balance rows that take this account's incoming credits, 0 when
+     * the account is not hot. The exact balance is {@code balance} plus those rows.
+     */
+    @Column(name = "balance_shards", nullable = false)
+    private int balanceShards;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @NotNull(message = "{softdelete.notnull}")
     @Column(name = "soft_delete", nullable = false)
     private boolean softDelete;
 
     public Account(Currency currency) {
-        this.balance = 0.;
+        this.balance = Money.ZERO;
         if (currency == Currency.ars) {
-            this.transactionLimit = 300000.0;
+            this.transactionLimit = Money.of(300000);
         } else {
-            this.transactionLimit = 1000.;
+            this.transactionLimit = Money.of(1000);
         }
         this.currency = currency;
     }
@@ -0,0 +1,34 @@
+package com.alkemy.wallet.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "account_balance_shards",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_shard_account_shard", columnNames = {"account_id", "shard"}))
+@NoArgsConstructor
+public class AccountBalanceShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "shard", nullable = false)
+    private int shard;
+
+    @Column(name = "balance", nullable = false)
+    private Money balance = Money.ZERO;
+
+    public AccountBalanceShard(Long accountId, int shard) {
+        this.accountId = accountId;
+        this.shard = shard;
+    }
+}
@@ -0,0 +1,36 @@
+package com.alkemy.wallet.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Journal balance of an account at {@code takenAt}: the sum of its postings up to
+ * that instant. Fixed term deposits are not included.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "balance_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshot_account_taken_at",
+                columnNames = {"account_id", "taken_at"}))
+@NoArgsConstructor
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "taken_at", nullable = false)
+    private Date takenAt;
+
+    @Column(name = "balance", nullable = false)
+    private Money balance;
+}
@@ -7,6 +7,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDate;
+import java.util.Date;
 
 @Builder
 @Getter
@@ -23,16 +24,24 @@ public class FixedTermDeposit {
     private Long id;
 
     @NotNull(message = "{amount.notnull}")
-    private Double amount;
+    private Money amount;
 
     @NotNull(message = "{interest.notnull}")
-    private Double interest;
+    private Money interest;
 
     @NotNull(message = "{creationdate.notnull}")
     @CreationTimestamp
     @JsonFormat(pattern="dd-MM-yyyy")
     private LocalDate creationDate;
 
+    /**
+     * Instant the deposit was opened, for balances at a past instant; null on deposits
+     * opened before it was recorded, which only have their creation day.
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Date createdAt;
+
     @NotNull(message = "{closingdate.notnull}")
     @JsonFormat(pattern="dd-MM-yyyy")
     private LocalDate closingDate;
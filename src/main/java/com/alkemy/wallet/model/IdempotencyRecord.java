@@ -0,0 +1,59 @@
+package com.alkemy.wallet.model;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    /** Zero while the original request is still running. */
+    @Column(name = "status", nullable = false)
+    private int status;
+
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+
+    /** The stored response as JSON. */
+    @Lob
+    @Column(name = "body")
+    private String body;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord(String key, String requestHash, Instant expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
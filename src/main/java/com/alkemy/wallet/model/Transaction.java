@@ -13,40 +13,55 @@ import java.util.Date;
 @Data
 @RequiredArgsConstructor
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_transfer_id", columnList = "transfer_id"),
+        @Index(name = "idx_transactions_account_date_id", columnList = "account_id, transaction_date, transaction_id")})
 //@ApiModel("Transacción")
 public class Transaction {
 
     @Id
     @Column(name = "transaction_id", unique = true, nullable = false)
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_sequence")
+    @SequenceGenerator(name = "transaction_sequence", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "{amount.notnull}")
-    @Column(name = "amount")
-    private Double amount;
+    @Column(name = "amount", updatable = false)
+    private Money amount;
 
     @NotNull(message = "{typeoftransaction.notnull}")
     @Enumerated(EnumType.STRING)
-    @Column(name = "type")
+    @Column(name = "type", updatable = false)
     private TypeOfTransaction type;
 
+    /**
+     * Groups the postings of one movement: both legs of a transfer share it,
+     * deposits and payments have a single posting.
+     */
+    @Column(name = "transfer_id", length = 36, updatable = false)
+    private String transferId;
+
     @Column(name = "description")
     private String description;
 
     @ManyToOne
-    @JoinColumn(name = "account_id")
+    @JoinColumn(name = "account_id", updatable = false)
     private Account account;
 
     @Column(name = "transaction_date")
     @CreationTimestamp
     private Date transactionDate;
 
-    public Transaction(Double amount, TypeOfTransaction type, String description, Account account) {
+    public Transaction(Money amount, TypeOfTransaction type, String description, Account account) {
         this.amount = amount;
         this.type = type;
         this.description = description;
         this.account = account;
     }
 
+    public Transaction(String transferId, Money amount, TypeOfTransaction type, String description, Account account) {
+        this(amount, type, description, account);
+        this.transferId = transferId;
+    }
+
 }
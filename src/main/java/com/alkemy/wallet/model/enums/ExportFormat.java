@@ -0,0 +1,25 @@
+package com.alkemy.wallet.model.enums;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public enum ExportFormat {
+    csv("text/csv", "csv"),
+    ndjson("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,9 @@
+package com.alkemy.wallet.model.enums;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public enum LockingMode {
+    optimistic,
+    pessimistic
+}
@@ -0,0 +1,11 @@
+package com.alkemy.wallet.model.enums;
+
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public enum TransferRequestState {
+    pending,
+    running,
+    completed,
+    failed
+}
@@ -0,0 +1,40 @@
+package com.alkemy.wallet.repository;
+
+import com.alkemy.wallet.model.AccountBalanceShard;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+@Hidden
+public interface IAccountBalanceShardRepository extends JpaRepository<AccountBalanceShard, Long> {
+
+    List<AccountBalanceShard> findAllByAccountId(Long accountId);
+
+    @Modifying
+    @Query(value = "UPDATE account_balance_shards SET balance = balance + :cents "
+            + "WHERE account_id = :accountId AND shard = :shard", nativeQuery = true)
+    int credit(@Param("accountId") Long accountId, @Param("shard") int shard, @Param("cents") long cents);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceShard s WHERE s.accountId = :accountId ORDER BY s.shard")
+    List<AccountBalanceShard> findAllByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query(value = "UPDATE account_balance_shards SET balance = 0 WHERE MOD(account_id, :partitions) = :partition",
+            nativeQuery = true)
+    int resetPartition(@Param("partitions") int partitions, @Param("partition") int partition);
+
+    @Query(value = "SELECT account_id, SUM(balance) FROM account_balance_shards "
+            + "WHERE account_id IN (:accountIds) GROUP BY account_id", nativeQuery = true)
+    List<Object[]> sumByAccountIds(@Param("accountIds") Collection<Long> accountIds);
+
+    @Query(value = "SELECT DISTINCT account_id FROM account_balance_shards WHERE balance <> 0", nativeQuery = true)
+    List<Long> findAccountIdsWithPendingCredits();
+}
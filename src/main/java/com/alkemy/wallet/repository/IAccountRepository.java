@@ -1,12 +1,23 @@
 package com.alkemy.wallet.repository;
 
 import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.BasicAccountDto;
 import com.alkemy.wallet.model.Account;
 import com.alkemy.wallet.model.enums.Currency;
 import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 //public interface IAccountRepository extends JpaRepository<Account, Long> {
 //    HashSet<Account> findByUserId(Long user_id);
@@ -16,7 +27,65 @@ public interface IAccountRepository extends JpaRepository<Account,Long> {
 
     List<Account> findAllByUser_Id(Long userId);
 
+    @EntityGraph(attributePaths = {"user", "user.role"})
     List<Account> findAllByUser_Email(String email);
 
+    @Query(value = "SELECT new com.alkemy.wallet.dto.AccountDto(a.id, a.currency, a.transactionLimit, a.balance, "
+            + "a.user.id) FROM Account a",
+            countQuery = "SELECT COUNT(a) FROM Account a")
+    Page<AccountDto> findAllDtos(Pageable pageable);
+
+    @Query("SELECT new com.alkemy.wallet.dto.AccountDto(a.id, a.currency, a.transactionLimit, a.balance, "
+            + "a.user.id) FROM Account a WHERE a.id > :after ORDER BY a.id")
+    List<AccountDto> findDtosAfter(@Param("after") Long after, Pageable limit);
+
+    @Query("SELECT new com.alkemy.wallet.dto.AccountDto(a.id, a.currency, a.transactionLimit, a.balance, u.id) "
+            + "FROM Account a JOIN a.user u WHERE u.email = :email ORDER BY a.id")
+    List<AccountDto> findDtosByUserEmail(@Param("email") String email);
+
+    @Query("SELECT new com.alkemy.wallet.dto.BasicAccountDto(a.id, a.currency, a.transactionLimit, a.balance, "
+            + "a.user.id) FROM Account a WHERE a.user.id = :userId ORDER BY a.id")
+    List<BasicAccountDto> findBasicDtosByUserId(@Param("userId") Long userId);
+
     Account findByCurrencyAndUser_Email(Currency currency, String email);
+
+    Optional<Account> findByUser_IdAndCurrency(Long userId, Currency currency);
+
+    boolean existsByUser_IdAndCurrency(Long userId, Currency currency);
+
+    @Query("SELECT a.id FROM Account a WHERE a.user.id = :userId AND a.currency = :currency")
+    Optional<Long> findIdByUserIdAndCurrency(@Param("userId") Long userId, @Param("currency") Currency currency);
+
+    @Query("SELECT a.id FROM Account a WHERE a.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    List<Account> findAllByUser_IdOrIdIn(Long userId, Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id FROM Account a WHERE a.balanceShards > 0")
+    List<Long> findHotAccountIds();
+
+    @Query(value = "SELECT id FROM accounts WHERE MOD(id, :partitions) = :partition ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockPartition(@Param("partitions") int partitions, @Param("partition") int partition);
+
+    /**
+     * Recomputes the balance of one account partition from the transactions journal:
+     * incomes and deposits minus payments, minus the money parked in fixed term deposits.
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts a SET version = version + 1, balance = "
+            + "COALESCE((SELECT SUM(CASE WHEN t.type = 'payment' THEN -t.amount ELSE t.amount END) "
+            + "FROM transactions t WHERE t.account_id = a.id), 0) "
+            + "- COALESCE((SELECT SUM(f.amount) FROM fixed_deposits f WHERE f.account_id = a.id), 0) "
+            + "WHERE MOD(a.id, :partitions) = :partition",
+            nativeQuery = true)
+    int rebuildBalances(@Param("partitions") int partitions, @Param("partition") int partition);
 }
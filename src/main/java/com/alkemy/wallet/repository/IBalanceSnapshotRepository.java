@@ -0,0 +1,37 @@
+package com.alkemy.wallet.repository;
+
+import com.alkemy.wallet.model.BalanceSnapshot;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.Optional;
+
+@Hidden
+public interface IBalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long accountId, Date at);
+
+    @Query("SELECT MAX(s.takenAt) FROM BalanceSnapshot s")
+    Optional<Date> findLatestTakenAt();
+
+    /**
+     * Snapshots every account at {@code takenAt}, starting from its latest snapshot
+     * and adding only the postings made after it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO balance_snapshots (account_id, taken_at, balance) "
+            + "SELECT a.id, :takenAt, "
+            + "COALESCE((SELECT s.balance FROM balance_snapshots s WHERE s.account_id = a.id AND s.taken_at = "
+            + "(SELECT MAX(l.taken_at) FROM balance_snapshots l WHERE l.account_id = a.id)), 0) "
+            + "+ COALESCE((SELECT SUM(CASE WHEN t.type = 'payment' THEN -t.amount ELSE t.amount END) "
+            + "FROM transactions t WHERE t.account_id = a.id AND t.transaction_date <= :takenAt "
+            + "AND t.transaction_date > COALESCE((SELECT MAX(l.taken_at) FROM balance_snapshots l "
+            + "WHERE l.account_id = a.id), :epoch)), 0) "
+            + "FROM accounts a",
+            nativeQuery = true)
+    int takeSnapshots(@Param("takenAt") Date takenAt, @Param("epoch") Date epoch);
+}
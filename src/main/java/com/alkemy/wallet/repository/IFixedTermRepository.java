@@ -4,11 +4,32 @@ import com.alkemy.wallet.dto.FixedTermDto;
 import com.alkemy.wallet.model.FixedTermDeposit;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 @Hidden
 public interface IFixedTermRepository extends JpaRepository<FixedTermDeposit, Long> {
 
     List<FixedTermDeposit> findAllByAccount_Id(Long id);
+
+    /**
+     * Cents put in fixed terms opened up to {@code at}; deposits without a creation
+     * instant count from the start of their creation day.
+     */
+    @Query(value = "SELECT COALESCE(SUM(f.amount), 0) FROM fixed_deposits f "
+            + "WHERE f.account_id = :accountId "
+            + "AND (f.created_at <= :at OR (f.created_at IS NULL AND f.creation_date <= :date))",
+            nativeQuery = true)
+    long sumAmountByAccountIdUntil(@Param("accountId") Long accountId, @Param("at") Date at,
+                                   @Param("date") LocalDate date);
+
+    @Query("SELECT new com.alkemy.wallet.dto.FixedTermDto(f.id, f.amount, a.id, f.interest, f.creationDate, "
+            + "f.closingDate, a.currency) FROM FixedTermDeposit f JOIN f.account a WHERE a.id IN :accountIds "
+            + "ORDER BY f.id")
+    List<FixedTermDto> findDtosByAccountIdIn(@Param("accountIds") Collection<Long> accountIds);
 }
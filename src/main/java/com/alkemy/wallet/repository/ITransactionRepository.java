@@ -1,24 +1,89 @@
 package com.alkemy.wallet.repository;
 
+import com.alkemy.wallet.dto.ResponseTransactionDto;
 import com.alkemy.wallet.model.Transaction;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 @Hidden
 @Repository
-public interface ITransactionRepository extends PagingAndSortingRepository<Transaction, Long>, JpaRepository<Transaction, Long> {
+public interface ITransactionRepository extends PagingAndSortingRepository<Transaction, Long>, JpaRepository<Transaction, Long>,
+        ITransactionSearchRepository {
     //HashSet<Transaction> findByAccountId(Long account_id);
 
     HashSet<Transaction> findByAccount_idIn(List<Long> account_id);
 
     Page<Transaction> findByAccount_User_Id(Long id, Pageable pageRequest);
 
+    /*
+     * Keyset reads of one account's history, newest first on (transaction_date, transaction_id):
+     * the first slice, the slice older than a position and, read backwards, the slice newer
+     * than a position. Filtering on the account keeps them inside
+     * idx_transactions_account_date_id, in index order. The limit comes from the Pageable;
+     * none of them counts rows.
+     */
+
+    @Query("SELECT new com.alkemy.wallet.dto.ResponseTransactionDto(t.id, t.transferId, t.amount, "
+            + "t.transactionDate, t.type, t.description, a.id, a.currency, a.transactionLimit, a.balance, a.user.id) "
+            + "FROM Transaction t JOIN t.account a WHERE a.id = :accountId "
+            + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<ResponseTransactionDto> findAccountHistory(@Param("accountId") Long accountId, Pageable limit);
+
+    @Query("SELECT new com.alkemy.wallet.dto.ResponseTransactionDto(t.id, t.transferId, t.amount, "
+            + "t.transactionDate, t.type, t.description, a.id, a.currency, a.transactionLimit, a.balance, a.user.id) "
+            + "FROM Transaction t JOIN t.account a WHERE a.id = :accountId "
+            + "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.id < :id)) "
+            + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<ResponseTransactionDto> findAccountHistoryOlderThan(@Param("accountId") Long accountId, @Param("date") Date date,
+                                                             @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT new com.alkemy.wallet.dto.ResponseTransactionDto(t.id, t.transferId, t.amount, "
+            + "t.transactionDate, t.type, t.description, a.id, a.currency, a.transactionLimit, a.balance, a.user.id) "
+            + "FROM Transaction t JOIN t.account a WHERE a.id = :accountId "
+            + "AND (t.transactionDate > :date OR (t.transactionDate = :date AND t.id > :id)) "
+            + "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<ResponseTransactionDto> findAccountHistoryNewerThan(@Param("accountId") Long accountId, @Param("date") Date date,
+                                                             @Param("id") Long id, Pageable limit);
+
+    /**
+     * Number and signed sum, in cents, of an account's postings in {@code (from, to]}.
+     */
+    @Query(value = "SELECT COUNT(*) AS postings, "
+            + "COALESCE(SUM(CASE WHEN t.type = 'payment' THEN -t.amount ELSE t.amount END), 0) AS cents "
+            + "FROM transactions t WHERE t.account_id = :accountId "
+            + "AND t.transaction_date > :from AND t.transaction_date <= :to",
+            nativeQuery = true)
+    JournalSum sumJournal(@Param("accountId") Long accountId, @Param("from") Date from, @Param("to") Date to);
+
+    interface JournalSum {
+
+        long getPostings();
+
+        long getCents();
+    }
+
+    @Query("SELECT new com.alkemy.wallet.dto.ResponseTransactionDto(t.id, t.transferId, t.amount, "
+            + "t.transactionDate, t.type, t.description, a.id, a.currency, a.transactionLimit, a.balance, u.id) "
+            + "FROM Transaction t JOIN t.account a JOIN a.user u WHERE t.id = :id AND u.email = :email")
+    Optional<ResponseTransactionDto> findDtoByIdAndOwnerEmail(@Param("id") Long id, @Param("email") String email);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.description = :description WHERE t.id = :id "
+            + "AND t.account.id IN (SELECT a.id FROM Account a WHERE a.user.email = :email)")
+    int updateDescriptionByIdAndOwnerEmail(@Param("id") Long id, @Param("email") String email,
+                                           @Param("description") String description);
+
 
 }
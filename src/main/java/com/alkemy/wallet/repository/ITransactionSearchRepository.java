@@ -0,0 +1,17 @@
+package com.alkemy.wallet.repository;
+
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.model.Transaction;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@Hidden
+public interface ITransactionSearchRepository {
+
+    /**
+     * Newest first, at most {@code limit} rows, read straight into DTOs without loading entities or counting.
+     */
+    List<ResponseTransactionDto> findDtos(Specification<Transaction> spec, int limit);
+}
@@ -0,0 +1,49 @@
+package com.alkemy.wallet.repository;
+
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Transaction;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link ITransactionSearchRepository}, picked up by Spring Data
+ * through the {@code Impl} suffix and exposed on {@link ITransactionRepository}.
+ */
+@Hidden
+public class ITransactionSearchRepositoryImpl implements ITransactionSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ResponseTransactionDto> findDtos(Specification<Transaction> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResponseTransactionDto> query = cb.createQuery(ResponseTransactionDto.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        Join<Transaction, Account> account = TransactionSpecifications.account(root);
+
+        query.select(cb.construct(ResponseTransactionDto.class,
+                root.get("id"), root.get("transferId"), root.get("amount"), root.get("transactionDate"),
+                root.get("type"), root.get("description"), account.get("id"), account.get("currency"),
+                account.get("transactionLimit"), account.get("balance"), account.get("user").get("id")));
+        Predicate where = spec.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(cb.desc(root.get("transactionDate")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -4,9 +4,12 @@ import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.alkemy.wallet.dto.ResponseUserDto;
 import com.alkemy.wallet.model.User;
 
 import java.util.List;
@@ -28,4 +31,16 @@ public interface IUserRepository extends PagingAndSortingRepository<User, Long>,
 
     Page<User> findAll(Pageable pageable);
 
+    @Query(value = "SELECT new com.alkemy.wallet.dto.ResponseUserDto(u.firstName, u.lastName, u.email) FROM User u",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<ResponseUserDto> findAllDtos(Pageable pageable);
+
+    @Query("SELECT new com.alkemy.wallet.dto.ResponseUserDto(u.id, u.firstName, u.lastName, u.email) FROM User u "
+            + "WHERE u.id > :after ORDER BY u.id")
+    List<ResponseUserDto> findDtosAfter(@Param("after") Long after, Pageable limit);
+
+    @Query("SELECT new com.alkemy.wallet.dto.ResponseUserDto(u.firstName, u.lastName, u.email) FROM User u "
+            + "WHERE u.id = :id AND u.email = :email")
+    Optional<ResponseUserDto> findDtoByIdAndEmail(@Param("id") Long id, @Param("email") String email);
+
 }
@@ -0,0 +1,70 @@
+package com.alkemy.wallet.repository;
+
+import com.alkemy.wallet.dto.TransactionFilterDto;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.Transaction;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import java.util.Date;
+
+/**
+ * Filters of the transaction history, each one pushed down to the WHERE clause.
+ * They share a single join to the account, so combining them never adds joins.
+ */
+@Hidden
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> matching(Long userId, TransactionFilterDto filter) {
+        Specification<Transaction> spec = Specification.where(ofUser(userId));
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.getType() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("type"), filter.getType()));
+        }
+        if (filter.getCurrency() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(account(root).get("currency"), filter.getCurrency()));
+        }
+        if (filter.getFrom() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.greaterThanOrEqualTo(root.<Date>get("transactionDate"), Date.from(filter.getFrom())));
+        }
+        if (filter.getTo() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.lessThan(root.<Date>get("transactionDate"), Date.from(filter.getTo())));
+        }
+        if (filter.getMinAmount() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.greaterThanOrEqualTo(root.<Money>get("amount"), Money.of(filter.getMinAmount())));
+        }
+        if (filter.getMaxAmount() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.lessThanOrEqualTo(root.<Money>get("amount"), Money.of(filter.getMaxAmount())));
+        }
+        return spec;
+    }
+
+    public static Specification<Transaction> ofUser(Long userId) {
+        return (root, query, cb) -> cb.equal(account(root).get("user").get("id"), userId);
+    }
+
+    /**
+     * The join to the transaction's account, reusing the one already on the query if any.
+     */
+    @SuppressWarnings("unchecked")
+    public static Join<Transaction, Account> account(Root<Transaction> root) {
+        return root.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals("account"))
+                .map(join -> (Join<Transaction, Account>) join)
+                .findFirst()
+                .orElseGet(() -> root.join("account", JoinType.INNER));
+    }
+}
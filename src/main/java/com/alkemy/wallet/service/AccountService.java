@@ -3,18 +3,25 @@ package com.alkemy.wallet.service;
 import com.alkemy.wallet.dto.*;
 import com.alkemy.wallet.exception.*;
 import com.alkemy.wallet.model.Account;
-import com.alkemy.wallet.model.FixedTermDeposit;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.model.enums.Currency;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.IFixedTermRepository;
 import com.alkemy.wallet.repository.IUserRepository;
 import com.alkemy.wallet.service.interfaces.IAccountService;
+import com.alkemy.wallet.service.interfaces.IHotAccountService;
 import com.alkemy.wallet.service.interfaces.IUserService;
+import com.alkemy.wallet.util.AccountIdCache;
+import com.alkemy.wallet.util.BalanceCache;
+import com.alkemy.wallet.util.CurrentUser;
 import com.alkemy.wallet.util.JwtUtil;
+import com.alkemy.wallet.util.KeysetCursor;
+import com.alkemy.wallet.util.UserPrincipal;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +36,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -43,8 +51,12 @@ public class AccountService implements IAccountService {
     private final ModelMapper mapper;
     private final JwtUtil jwtUtil;
     private final MessageSource messageSource;
+    private final IHotAccountService hotAccountService;
+    private final AccountIdCache accountIdCache;
+    private final BalanceCache balanceCache;
+    private final CurrentUser currentUser;
 
-    public AccountService(IAccountRepository accountRepository, IFixedTermRepository fixedTermRepository, IUserService userService, IUserRepository userRepository, ModelMapper mapper, JwtUtil jwtUtil, MessageSource messageSource) {
+    public AccountService(IAccountRepository accountRepository, IFixedTermRepository fixedTermRepository, IUserService userService, IUserRepository userRepository, ModelMapper mapper, JwtUtil jwtUtil, MessageSource messageSource, IHotAccountService hotAccountService, AccountIdCache accountIdCache, BalanceCache balanceCache, CurrentUser currentUser) {
         this.accountRepository = accountRepository;
         this.fixedTermRepository = fixedTermRepository;
         this.userService = userService;
@@ -52,21 +64,18 @@ public class AccountService implements IAccountService {
         this.mapper = mapper;
         this.jwtUtil = jwtUtil;
         this.messageSource = messageSource;
+        this.hotAccountService = hotAccountService;
+        this.accountIdCache = accountIdCache;
+        this.balanceCache = balanceCache;
+        this.currentUser = currentUser;
     }
 
     @Override
     public BasicAccountDto createAccount(AccountCreateDto accountCreateDto, User user) {
 
-        if (user != null) {
-            List<Account> accounts = accountRepository.findAllByUser_Email(user.getEmail());
-
-            if (accounts.stream()
-                    .anyMatch(c -> c.getCurrency().equals(accountCreateDto.getCurrency()))) {
-                throw new AccountAlreadyExistsException(messageSource.getMessage(
-                        "account.found.foruser.exception",
-                        new Object[] {accountCreateDto.getCurrency()},
-                        Locale.ENGLISH));
-            }
+        if (user != null && user.getId() != null
+                && accountRepository.existsByUser_IdAndCurrency(user.getId(), accountCreateDto.getCurrency())) {
+            throw accountAlreadyExists(accountCreateDto.getCurrency());
         }
 
         Account account = new Account(accountCreateDto.getCurrency());
@@ -74,10 +83,24 @@ public class AccountService implements IAccountService {
         account.setUser(user);
         account.setCreationDate(new Date());
 
-        System.out.println(account);
+        try {
+            // The (user_id, currency) unique key settles two creations racing past the check above.
+            account = accountRepository.saveAndFlush(account);
+        } catch (DataIntegrityViolationException e) {
+            throw accountAlreadyExists(accountCreateDto.getCurrency());
+        }
+        if (user != null) {
+            accountIdCache.invalidate(user.getId(), account.getCurrency());
+        }
+        return mapper.map(account, BasicAccountDto.class);
 
-        return mapper.map(accountRepository.save(account), BasicAccountDto.class);
+    }
 
+    private AccountAlreadyExistsException accountAlreadyExists(Currency currency) {
+        return new AccountAlreadyExistsException(messageSource.getMessage(
+                "account.found.foruser.exception",
+                new Object[] {currency},
+                Locale.ENGLISH));
     }
 
     @Override
@@ -91,65 +114,95 @@ public class AccountService implements IAccountService {
         return accounts;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BasicAccountDto> getBasicAccountsByUserId(Long userId) throws EmptyResultDataAccessException {
+        List<BasicAccountDto> accounts = accountRepository.findBasicDtosByUserId(userId);
+
+        if (accounts.isEmpty()) {
+            throw new EmptyResultDataAccessException("User has no accounts", 1);
+        }
+        return accounts;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<AccountDto> findAllAccountsPageable(int page) throws EmptyResultDataAccessException {
 
         Pageable pageable = PageRequest.of(page, 10);
 
-        return accountRepository.findAll(pageable).map(account ->
-                mapper.map(account, AccountDto.class));
+        Page<AccountDto> accounts = accountRepository.findAllDtos(pageable);
+        hotAccountService.withShardBalances(accounts.getContent());
+        return accounts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<AccountDto> findAccountsAfter(String cursor, boolean includeTotal) {
+        long lastSeenId;
+        try {
+            lastSeenId = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(messageSource.getMessage("keyset.cursor.invalid.exception",
+                    null, Locale.ENGLISH));
+        }
+        List<AccountDto> rows = accountRepository.findDtosAfter(lastSeenId,
+                PageRequest.of(0, KeysetCursor.PAGE_SIZE + 1));
+        KeysetPageDto<AccountDto> slice = KeysetCursor.slice(rows, AccountDto::getId,
+                includeTotal ? accountRepository.count() : null);
+        hotAccountService.withShardBalances(slice.getContent());
+        return slice;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AccountDto> getAccountsByUserEmail(String email) throws EmptyResultDataAccessException {
-        List<Account> accounts = accountRepository.findAllByUser_Email(email);
+        List<AccountDto> accounts = accountRepository.findDtosByUserEmail(email);
 
         if (accounts.isEmpty()) {
             throw new EmptyResultDataAccessException("User has no accounts", 1);
         }
-        return accounts.stream().map(account ->
-                mapper.map(account, AccountDto.class)
-        ).toList();
+        return hotAccountService.withShardBalances(accounts);
     }
 
     @Override
     public Account getAccountByCurrency(Long userId, Currency currency) {
+        return accountRepository.findByUser_IdAndCurrency(userId, currency).orElse(null);
+    }
 
-        List<Account> userAccounts = getAccountsByUserId(userId);
-        for (Account account : userAccounts) {
-            if (account.getCurrency() == currency) {
-                return account;
-            }
-        }
-        return null;
+    /**
+     * Resolves the id of the user's account in that currency with one probe of the
+     * (user_id, currency) unique index, or none when it is already cached.
+     */
+    @Override
+    public Long getAccountIdByCurrency(Long userId, Currency currency) {
+        return accountIdCache.get(userId, currency,
+                () -> accountRepository.findIdByUserIdAndCurrency(userId, currency)).orElseThrow(() ->
+                new ResourceNotFoundException(messageSource.getMessage("account.notfound.currency.exception",
+                        new Object[]{currency}, Locale.ENGLISH)));
     }
 
     @Override
     public boolean checkAccountLimit(Account senderAccount, RequestTransactionDto transactionDto) {
-        if (transactionDto.getAmount() < senderAccount.getTransactionLimit())
+        if (transactionDto.getAmount().isLessThan(senderAccount.getTransactionLimit()))
             return true;
         else throw new AccountLimitException("Account transaction limit exceeded");
     }
 
     public ResponseEntity<?> updateAccount(Long id, AccountUpdateDto newTransactionLimit) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            User user = userRepository.findByEmail(auth.getName());
             Account account = accountRepository.findById(id).orElseThrow(()
                     -> new ResourceNotFoundException(messageSource.getMessage("account.notfound.exception",
                     new Object[] {id}, Locale.ENGLISH)));
-            List<Account> accounts = accountRepository.findAllByUser_Email(user.getEmail());
 
-            if (accounts.stream().noneMatch(c -> c.getId().equals(id))) {
+            if (!account.getUser().getId().equals(currentUser.getId())) {
                 throw new ResourceNotFoundException(messageSource.getMessage("account.notfound.foruser.exception",
                         new Object[] {id}, Locale.ENGLISH));
             }
 
             mapper.map(newTransactionLimit, account);
             Account accountUpdated = accountRepository.save(account);
-            BasicAccountDto basicAccountDto = mapper.map(accountUpdated, BasicAccountDto.class);
+            balanceCache.evict(currentUser.getEmail());
             return ResponseEntity.status(HttpStatus.ACCEPTED).body(mapper.map(accountUpdated, BasicAccountDto.class));
         } catch (UserNotLoggedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e);
@@ -158,11 +211,8 @@ public class AccountService implements IAccountService {
 
     @Override
     public boolean checkAccountExistence(Long user_id, Currency currency) {
-        List<Account> accounts = accountRepository.findAllByUser_Id(user_id);
-        for (Account account : accounts) {
-            if (account.getCurrency() == currency) {
-                throw new AccountAlreadyExistsException("Account already exists");
-            }
+        if (accountRepository.existsByUser_IdAndCurrency(user_id, currency)) {
+            throw new AccountAlreadyExistsException("Account already exists");
         }
         return false;
     }
@@ -170,53 +220,64 @@ public class AccountService implements IAccountService {
     @Override
     public ResponseEntity<?> postAccount(BasicAccountDto basicAccountDto) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            User user = userRepository.findByEmail(auth.getName());
+            User user = UserPrincipal.current()
+                    .map(principal -> userRepository.getReferenceById(principal.getId()))
+                    .orElseGet(currentUser::get);
             return ResponseEntity.status(HttpStatus.OK).body(createAccount(mapper.map(basicAccountDto, AccountCreateDto.class), user));
 
         } catch (UserNotLoggedException | AccountAlreadyExistsException e) {
-            System.out.println(e.getMessage());
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e);
         }
     }
 
+    /**
+     * Answered from {@link BalanceCache} when possible. Otherwise two queries whatever
+     * the number of accounts: the user's accounts, then all their fixed term deposits
+     * with one IN query, grouped here by account.
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<BalanceDto> getBalance() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByEmail(auth.getName());
-        List<AccountDto> accounts = getAccountsByUserEmail(user.getEmail());
-        return accounts
-                .stream()
-                .map(this::getBalanceByAccount)
-                .collect(Collectors.toList());
+        return balanceCache.get(auth.getName(), () -> loadBalance(auth.getName()));
     }
 
-    private BalanceDto getBalanceByAccount(AccountDto accountDto) {
-        BalanceDto balanceDto = mapper.map(accountDto, BalanceDto.class);
-        List<FixedTermDeposit> fixedTermList = fixedTermRepository.findAllByAccount_Id(accountDto.getId());
-        List<FixedTermDto> fixedTermDtoList = fixedTermList
+    private List<BalanceDto> loadBalance(String email) {
+        List<AccountDto> accounts = getAccountsByUserEmail(email);
+        Map<Long, List<FixedTermDto>> fixedTerms = fixedTermRepository
+                .findDtosByAccountIdIn(accounts.stream().map(AccountDto::getId).toList())
                 .stream()
-                .map(fixedTerm -> mapper.map(fixedTerm, FixedTermDto.class))
+                .collect(Collectors.groupingBy(FixedTermDto::getAccountId));
+        return accounts
+                .stream()
+                .map(account -> BalanceDto.builder()
+                        .id(account.getId())
+                        .balance(account.getBalance())
+                        .currency(account.getCurrency())
+                        .fixedTerm(fixedTerms.getOrDefault(account.getId(), List.of()))
+                        .build())
                 .collect(Collectors.toList());
-        fixedTermDtoList.stream().forEach(fixedTermDto -> fixedTermDto.setCurrency(accountDto.getCurrency()));
-        balanceDto.setFixedTerm(fixedTermDtoList);
-        return balanceDto;
     }
 
     @Override
-    public AccountDto updateBalance(Long id, Double amount) {
-        if (amount <= 0) {
+    public AccountDto updateBalance(Long id, Money amount) {
+        if (amount == null || !amount.isPositive()) {
             throw new NoAmountException(messageSource.getMessage("amount.exception", null, Locale.ENGLISH));
         }
         Optional<Account> foundAccount = accountRepository.findById(id);
         if (!foundAccount.isPresent()) {
             throw new ResourceFoundException(messageSource.getMessage("account.notfound.exception", new Object[] {id}, Locale.ENGLISH));
         }
-        if (foundAccount.get().getBalance() < amount) {
+        Account account = foundAccount.get();
+        hotAccountService.foldIfShort(account, amount);
+        if (account.getBalance().isLessThan(amount)) {
             throw new NotEnoughCashException(messageSource.getMessage("notenoughcash.exception", null, Locale.ENGLISH));
         }
-        Account account = foundAccount.get();
-        account.setBalance(account.getBalance() - amount);
+        account.setBalance(account.getBalance().minus(amount));
+        accountRepository.save(account);
+        if (account.getUser() != null) {
+            balanceCache.evict(account.getUser().getEmail());
+        }
 
         return mapper.map(account, AccountDto.class);
     }
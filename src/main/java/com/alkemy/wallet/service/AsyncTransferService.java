@@ -0,0 +1,216 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransferRequestStatusDto;
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.exception.TransferQueueFullException;
+import com.alkemy.wallet.model.enums.TransferRequestState;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.service.interfaces.IAsyncTransferService;
+import com.alkemy.wallet.service.interfaces.ITransactionService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts transfers to run later on a bounded worker pool, so a burst of
+ * {@code Prefer: respond-async} requests does not hold a Tomcat thread and a pool
+ * connection for the whole write path. A request is validated before it is queued;
+ * when the queue is full it is refused with {@link TransferQueueFullException}
+ * instead of being accepted without capacity to finish it. Workers run with the
+ * submitter's security context, and each request's status is kept for
+ * {@code wallet.transfer.async.status-ttl}, visible only to the user who sent it.
+ * <p>
+ * Statuses live in this instance's memory, so with several instances the status
+ * URL must be routed (sticky sessions) to the instance that accepted the transfer.
+ * On shutdown queued transfers get up to {@code wallet.transfer.async.shutdown-timeout}
+ * to finish; whatever is still waiting after that is marked failed without running.
+ */
+@Hidden
+@Service
+public class AsyncTransferService implements IAsyncTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncTransferService.class);
+
+    private final ITransactionService transactionService;
+    private final IAccountRepository accountRepository;
+    private final MessageSource messageSource;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, TrackedRequest> requests;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+    private final Duration shutdownTimeout;
+
+    public AsyncTransferService(ITransactionService transactionService,
+                                IAccountRepository accountRepository,
+                                MessageSource messageSource,
+                                MeterRegistry meterRegistry,
+                                @Value("${wallet.transfer.async.workers:8}") int workers,
+                                @Value("${wallet.transfer.async.queue-capacity:1000}") int queueCapacity,
+                                @Value("${wallet.transfer.async.retry-after:1s}") Duration retryAfter,
+                                @Value("${wallet.transfer.async.status-ttl:1h}") Duration statusTtl,
+                                @Value("${wallet.transfer.async.status-max-size:100000}") long statusMaxSize,
+                                @Value("${wallet.transfer.async.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        if (workers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("wallet.transfer.async workers and queue-capacity must be greater than 0");
+        }
+        this.transactionService = transactionService;
+        this.accountRepository = accountRepository;
+        this.messageSource = messageSource;
+        this.shutdownTimeout = shutdownTimeout;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "transfer-async-" + threads.getAndIncrement()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.requests = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(statusMaxSize)
+                .build();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.rejected = Counter.builder("wallet.transfer.async.rejected")
+                .description("Async transfers refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("wallet.transfer.async.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Async transfers waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TransferRequestStatusDto submit(RequestTransactionDto destinedTransactionDto) {
+        transactionService.checkTransactionAmount(destinedTransactionDto.getAmount());
+        Long destinedAccountId = destinedTransactionDto.getAccount() == null
+                ? null : destinedTransactionDto.getAccount().getId();
+        if (destinedAccountId == null || !accountRepository.existsById(destinedAccountId)) {
+            throw new ResourceNotFoundException(messageSource.getMessage("account.notfound.receiving.exception",
+                    new Object[]{destinedAccountId}, Locale.ENGLISH));
+        }
+
+        String requestId = UUID.randomUUID().toString();
+        TransferRequestStatusDto pending = TransferRequestStatusDto.builder()
+                .id(requestId)
+                .state(TransferRequestState.pending)
+                .submittedAt(Instant.now())
+                .build();
+        TrackedRequest request = new TrackedRequest(SecurityContextHolder.getContext().getAuthentication().getName(),
+                pending);
+        requests.put(requestId, request);
+        try {
+            executor.execute(new QueuedTransfer(request,
+                    new DelegatingSecurityContextRunnable(() -> run(request, destinedTransactionDto))));
+        } catch (RejectedExecutionException e) {
+            requests.invalidate(requestId);
+            rejected.increment();
+            throw new TransferQueueFullException(messageSource.getMessage("transfer.queue.full.exception",
+                    new Object[]{retryAfterSeconds}, Locale.ENGLISH), retryAfterSeconds);
+        }
+        return pending;
+    }
+
+    @Override
+    public TransferRequestStatusDto getStatus(String requestId) {
+        TrackedRequest request = requests.getIfPresent(requestId);
+        if (request == null
+                || !request.owner.equals(SecurityContextHolder.getContext().getAuthentication().getName())) {
+            throw new ResourceNotFoundException(messageSource.getMessage("transfer.request.notfound.exception",
+                    new Object[]{requestId}, Locale.ENGLISH));
+        }
+        return request.status;
+    }
+
+    private void run(TrackedRequest request, RequestTransactionDto destinedTransactionDto) {
+        request.status = request.status.toBuilder().state(TransferRequestState.running).build();
+        TransferRequestStatusDto.TransferRequestStatusDtoBuilder finished = request.status.toBuilder();
+        try {
+            ResponseEntity<Object> response = transactionService.makeTransaction(destinedTransactionDto);
+            finished.status(response.getStatusCode());
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() instanceof ResponseTransactionDto) {
+                finished.state(TransferRequestState.completed).transaction((ResponseTransactionDto) response.getBody());
+            } else {
+                finished.state(TransferRequestState.failed).error(errorOf(response.getBody()));
+            }
+        } catch (RuntimeException e) {
+            finished.state(TransferRequestState.failed)
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .error(e.getMessage());
+        }
+        request.status = finished.completedAt(Instant.now()).build();
+    }
+
+    private static String errorOf(Object body) {
+        return body instanceof Throwable ? ((Throwable) body).getMessage() : String.valueOf(body);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> leftovers = executor.shutdownNow();
+        for (Runnable leftover : leftovers) {
+            TrackedRequest request = ((QueuedTransfer) leftover).request;
+            request.status = request.status.toBuilder()
+                    .state(TransferRequestState.failed)
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .error(messageSource.getMessage("transfer.async.shutdown.exception", null, Locale.ENGLISH))
+                    .completedAt(Instant.now())
+                    .build();
+        }
+        log.warn("Async transfers still queued after {}: {} marked failed", shutdownTimeout, leftovers.size());
+    }
+
+    private static class QueuedTransfer implements Runnable {
+        private final TrackedRequest request;
+        private final Runnable work;
+
+        private QueuedTransfer(TrackedRequest request, Runnable work) {
+            this.request = request;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            work.run();
+        }
+    }
+
+    private static class TrackedRequest {
+        private final String owner;
+        private volatile TransferRequestStatusDto status;
+
+        private TrackedRequest(String owner, TransferRequestStatusDto status) {
+            this.owner = owner;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.BalanceAtDto;
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.model.BalanceSnapshot;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.repository.IBalanceSnapshotRepository;
+import com.alkemy.wallet.repository.IFixedTermRepository;
+import com.alkemy.wallet.repository.ITransactionRepository;
+import com.alkemy.wallet.service.interfaces.IBalanceHistoryService;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Balance of an account at a past instant. Every {@code wallet.balance-snapshots.interval}
+ * each account gets a snapshot of its journal balance, built incrementally from its
+ * previous snapshot. A lookup starts from the latest snapshot before the requested
+ * instant and replays only the postings after it, so its cost depends on the
+ * interval and not on how old the account is. Snapshots are taken
+ * {@code wallet.balance-snapshots.lag} in the past, leaving time for transactions
+ * stamped before that instant to commit. An instance that restarts more often than
+ * the interval would never reach its first scheduled run, so on startup snapshots are
+ * taken right away when the latest one is older than the interval.
+ */
+@Hidden
+@Service
+public class BalanceHistoryService implements IBalanceHistoryService {
+
+    private static final Date EPOCH = new Date(0);
+
+    private final IAccountRepository accountRepository;
+    private final IBalanceSnapshotRepository snapshotRepository;
+    private final ITransactionRepository transactionRepository;
+    private final IFixedTermRepository fixedTermRepository;
+    private final MessageSource messageSource;
+    private final Duration interval;
+    private final Duration lag;
+
+    public BalanceHistoryService(IAccountRepository accountRepository,
+                                 IBalanceSnapshotRepository snapshotRepository,
+                                 ITransactionRepository transactionRepository,
+                                 IFixedTermRepository fixedTermRepository,
+                                 MessageSource messageSource,
+                                 @Value("${wallet.balance-snapshots.interval:PT24H}") Duration interval,
+                                 @Value("${wallet.balance-snapshots.lag:1m}") Duration lag) {
+        this.accountRepository = accountRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionRepository = transactionRepository;
+        this.fixedTermRepository = fixedTermRepository;
+        this.messageSource = messageSource;
+        this.interval = interval;
+        this.lag = lag;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BalanceAtDto getBalanceAt(Long accountId, Instant at) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new ResourceNotFoundException(messageSource.getMessage("account.notfound.exception",
+                    new Object[]{accountId}, Locale.ENGLISH));
+        }
+        Date until = Date.from(at);
+        Optional<BalanceSnapshot> snapshot = snapshotRepository
+                .findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(accountId, until);
+        ITransactionRepository.JournalSum replayed = transactionRepository.sumJournal(accountId,
+                snapshot.map(BalanceSnapshot::getTakenAt).orElse(EPOCH), until);
+        long fixedTerms = fixedTermRepository.sumAmountByAccountIdUntil(accountId, until,
+                at.atZone(ZoneId.systemDefault()).toLocalDate());
+
+        Money balance = snapshot.map(BalanceSnapshot::getBalance).orElse(Money.ZERO)
+                .plus(Money.ofCents(replayed.getCents()))
+                .minus(Money.ofCents(fixedTerms));
+        return new BalanceAtDto(accountId, at, balance,
+                snapshot.map(s -> s.getTakenAt().toInstant()).orElse(null), replayed.getPostings());
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${wallet.balance-snapshots.interval:PT24H}",
+            initialDelayString = "${wallet.balance-snapshots.interval:PT24H}")
+    public int takeSnapshots() {
+        return snapshotRepository.takeSnapshots(Date.from(Instant.now().minus(lag)), EPOCH);
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        Instant latest = snapshotRepository.findLatestTakenAt().map(Date::toInstant).orElse(Instant.EPOCH);
+        if (latest.isBefore(Instant.now().minus(interval))) {
+            snapshotRepository.takeSnapshots(Date.from(Instant.now().minus(lag)), EPOCH);
+        }
+    }
+}
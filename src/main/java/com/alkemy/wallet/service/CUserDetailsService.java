@@ -1,23 +1,19 @@
 package com.alkemy.wallet.service;
 
 import com.alkemy.wallet.exception.ResourceNotFoundException;
-import com.alkemy.wallet.model.Role;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.repository.IUserRepository;
+import com.alkemy.wallet.util.UserCache;
+import com.alkemy.wallet.util.UserPrincipal;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Collections;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 @Hidden
 @Service
@@ -27,23 +23,21 @@ public class CUserDetailsService implements UserDetailsService {
     private final IUserRepository userRepository;
     private final MessageSource messageSource;
 
+    private final UserCache userCache;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return userCache.get(email, this::loadUser);
+    }
+
+    private UserPrincipal loadUser(String email) {
         User user = userRepository.findOptionalByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         messageSource.getMessage(
                                 "email.notfound.exception",
                                 new Object[]{email},
                                 Locale.ENGLISH)));
-        return new org.springframework.security.core.userdetails.User(user.getEmail(),
-                user.getPassword(),
-                mapRolesToAuthorities(Collections.singletonList(user.getRole())));
-    }
-
-    private Collection<GrantedAuthority> mapRolesToAuthorities(Collection<Role> roles) {
-        return roles.stream().map(role ->
-                        new SimpleGrantedAuthority(role.getName().name()))
-                .collect(Collectors.toList());
+        return UserPrincipal.of(user);
     }
 }
 
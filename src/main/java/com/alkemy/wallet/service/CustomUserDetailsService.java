@@ -1,10 +1,13 @@
 package com.alkemy.wallet.service;
 
 import com.alkemy.wallet.dto.AccountCreateDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
 import com.alkemy.wallet.dto.RequestUserDto;
 import com.alkemy.wallet.dto.ResponseUserDto;
+import com.alkemy.wallet.exception.InvalidCursorException;
 import com.alkemy.wallet.exception.ResourceFoundException;
 import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.exception.UserNotLoggedException;
 import com.alkemy.wallet.listing.RoleName;
 import com.alkemy.wallet.mapper.Mapper;
 import com.alkemy.wallet.model.Role;
@@ -15,9 +18,13 @@ import com.alkemy.wallet.service.interfaces.IAccountService;
 import com.alkemy.wallet.service.interfaces.ICustomUserDetailsService;
 import com.alkemy.wallet.service.interfaces.IRoleService;
 import com.alkemy.wallet.service.interfaces.IUserService;
+import com.alkemy.wallet.util.CurrentUser;
 import com.alkemy.wallet.util.JwtUtil;
+import com.alkemy.wallet.util.KeysetCursor;
+import com.alkemy.wallet.util.UserCache;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -35,7 +42,7 @@ import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
 
 @Hidden
 @Service
@@ -57,6 +64,12 @@ public class CustomUserDetailsService implements ICustomUserDetailsService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private AuthenticationManager authenticationManager;
+    @Autowired
+    private MessageSource messageSource;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private CurrentUser currentUser;
 
     @Override
     public ResponseUserDto save(RequestUserDto requestUserDto) {
@@ -131,12 +144,13 @@ public class CustomUserDetailsService implements ICustomUserDetailsService {
 
     @Override
     public ResponseUserDto update(Long id, @Valid RequestUserDto requestUserDto) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-
-        if (!(userRepository.findByEmail(auth.getName()).getId() == id)) {
+        if (!id.equals(currentUser.getId())) {
             throw new AccessDeniedException("You can not modify another user´s details");
         }
-        User user = userRepository.findByEmail(requestUserDto.getEmail());
+        User user = currentUser.get();
+        if (user == null) {
+            throw new UserNotLoggedException(messageSource.getMessage("user.notlogged.exception", null, Locale.ENGLISH));
+        }
 
         user.setUpdateDate(new Date());
         user.setPassword(passwordEncoder.encode(requestUserDto.getPassword()));
@@ -144,6 +158,7 @@ public class CustomUserDetailsService implements ICustomUserDetailsService {
         user.setLastName(requestUserDto.getLastName());
 
         User userUpdated = userRepository.save(user);
+        userCache.evict(userUpdated.getEmail());
 
         return mapper.getMapper().map(userUpdated, ResponseUserDto.class);
     }
@@ -176,12 +191,12 @@ public class CustomUserDetailsService implements ICustomUserDetailsService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public Page<ResponseUserDto> findAllUsersPageable(int page) throws Exception {
         try {
 
             Pageable pageable = PageRequest.of(page, 10);
-            Page<ResponseUserDto> userPage = userRepository.findAll(pageable).map((user) -> mapper.getMapper().map(user, ResponseUserDto.class));
+            Page<ResponseUserDto> userPage = userRepository.findAllDtos(pageable);
 
             return userPage;
 
@@ -192,10 +207,24 @@ public class CustomUserDetailsService implements ICustomUserDetailsService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<ResponseUserDto> findUsersAfter(String cursor, boolean includeTotal) {
+        long lastSeenId;
+        try {
+            lastSeenId = KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(messageSource.getMessage("keyset.cursor.invalid.exception",
+                    null, Locale.ENGLISH));
+        }
+        List<ResponseUserDto> rows = userRepository.findDtosAfter(lastSeenId,
+                PageRequest.of(0, KeysetCursor.PAGE_SIZE + 1));
+        return KeysetCursor.slice(rows, ResponseUserDto::getId, includeTotal ? userRepository.count() : null);
+    }
+
     @Override
     public ResponseUserDto getUserAuthenticated() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        ResponseUserDto userDto = mapper.getMapper().map(userRepository.findByEmail(email), ResponseUserDto.class);
+        ResponseUserDto userDto = mapper.getMapper().map(currentUser.get(), ResponseUserDto.class);
         return userDto;
     }
 
@@ -203,12 +232,8 @@ public class CustomUserDetailsService implements ICustomUserDetailsService {
     public ResponseUserDto getUserLoggedById(Long id) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
-        if (!(Objects.equals(userRepository.findByEmail(auth.getName()).getId(), id))) {
-            throw new AccessDeniedException("You can not access to another user´s details");
-        }
-        User user = userRepository.findByEmail(auth.getName());
-
-        return mapper.getMapper().map(user, ResponseUserDto.class);
+        return userRepository.findDtoByIdAndEmail(id, auth.getName()).orElseThrow(() ->
+                new AccessDeniedException("You can not access to another user´s details"));
     }
 
 
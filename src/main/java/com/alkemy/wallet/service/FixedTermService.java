@@ -6,19 +6,23 @@ import com.alkemy.wallet.exception.FixedTermException;
 import com.alkemy.wallet.mapper.Mapper;
 import com.alkemy.wallet.model.Account;
 import com.alkemy.wallet.model.FixedTermDeposit;
-import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.IFixedTermRepository;
 import com.alkemy.wallet.repository.IUserRepository;
 import com.alkemy.wallet.service.interfaces.IAccountService;
 import com.alkemy.wallet.service.interfaces.IFixedTermService;
 import com.alkemy.wallet.service.interfaces.IUserService;
+import com.alkemy.wallet.util.OptimisticRetry;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.context.MessageSource;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.Locale;
@@ -28,7 +32,7 @@ import java.util.Locale;
 public class FixedTermService implements IFixedTermService {
 
     private static final Integer MIN_DAYS = 30;
-    private static final Double DAILY_INTEREST = 0.005;
+    private static final BigDecimal DAILY_INTEREST = new BigDecimal("0.005");
     private final Mapper mapper;
     private final IUserService userService;
     private final IUserRepository userRepository;
@@ -36,12 +40,16 @@ public class FixedTermService implements IFixedTermService {
     private final IAccountService accountService;
     private final IAccountRepository accountRepository;
     private final MessageSource messageSource;
+    private final OptimisticRetry optimisticRetry;
+    private final TransactionTemplate transactionTemplate;
 
     public FixedTermService(Mapper mapper, IUserService userService,
                             IUserRepository userRepository, IFixedTermRepository fixedTermRepository,
                             IAccountService accountService,
                             IAccountRepository accountRepository,
-                            MessageSource messageSource) {
+                            MessageSource messageSource,
+                            OptimisticRetry optimisticRetry,
+                            PlatformTransactionManager transactionManager) {
         this.mapper = mapper;
         this.userService = userService;
         this.userRepository = userRepository;
@@ -49,17 +57,27 @@ public class FixedTermService implements IFixedTermService {
         this.accountService = accountService;
         this.accountRepository = accountRepository;
         this.messageSource = messageSource;
+        this.optimisticRetry = optimisticRetry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * Debits the account and saves the deposit in one transaction, run again from
+     * the start when the account's version check fails on commit.
+     */
     @Override
     public FixedTermDto createFixedTerm(FixedTermDto fixedTermDto) {
+        return optimisticRetry.execute("createFixedTerm", () ->
+                transactionTemplate.execute(status -> openFixedTerm(fixedTermDto)));
+    }
+
+    private FixedTermDto openFixedTerm(FixedTermDto fixedTermDto) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByEmail(auth.getName());
 
         FixedTermDeposit fixedTerm = mapper.getMapper().map(fixedTermDto, FixedTermDeposit.class);
 
         Account account = accountRepository.findByCurrencyAndUser_Email(fixedTermDto.getCurrency(),
-                user.getEmail());
+                auth.getName());
 
         fixedTerm.setAccount(account);
         fixedTerm.setCreationDate(LocalDate.now());
@@ -71,7 +89,7 @@ public class FixedTermService implements IFixedTermService {
                     new Object[]{MIN_DAYS}, Locale.ENGLISH));
         }
 
-        fixedTerm.setInterest(fixedTerm.getAmount() * DAILY_INTEREST * days);
+        fixedTerm.setInterest(interestFor(fixedTerm.getAmount(), days));
         accountService.updateBalance(account.getId(), fixedTerm.getAmount());
         FixedTermDeposit fixedTermSaved = fixedTermRepository.save(fixedTerm);
         FixedTermDto fixedTermDtoMapped = mapper.getMapper().map(fixedTermSaved, FixedTermDto.class);
@@ -91,10 +109,14 @@ public class FixedTermService implements IFixedTermService {
                     new Object[]{MIN_DAYS}, Locale.ENGLISH));
         }
 
-        Double interest = fixedTermDto.getAmount() * DAILY_INTEREST * days;
+        Money interest = interestFor(fixedTermDto.getAmount(), days);
         fixedTermDto.setInterest(interest);
-        fixedTermDto.setTotalAmount(fixedTermDto.getAmount() + interest);
+        fixedTermDto.setTotalAmount(fixedTermDto.getAmount().plus(interest));
 
         return fixedTermDto;
     }
+
+    private Money interestFor(Money amount, long days) {
+        return amount.multiply(DAILY_INTEREST.multiply(BigDecimal.valueOf(days)));
+    }
 }
@@ -0,0 +1,169 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.exception.BalanceShardException;
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.AccountBalanceShard;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.repository.IAccountBalanceShardRepository;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.service.interfaces.IHotAccountService;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sub-balances for hot receiving accounts.
+ * Credits to a hot account are added to one of its shard rows, picked at random,
+ * so concurrent incomes lock different rows instead of queueing on the account.
+ * The account row keeps the rest of the balance: debits fold the shards into it
+ * first when it is short, and a scheduled job folds whatever is pending.
+ * The exact balance is always the account row plus its shards.
+ */
+@Hidden
+@Service
+public class HotAccountService implements IHotAccountService {
+
+    private final IAccountRepository accountRepository;
+    private final IAccountBalanceShardRepository shardRepository;
+    private final ModelMapper mapper;
+    private final MessageSource messageSource;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxShards;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Set<Long> hotAccountIds = Set.of();
+
+    public HotAccountService(IAccountRepository accountRepository,
+                             IAccountBalanceShardRepository shardRepository,
+                             ModelMapper mapper,
+                             MessageSource messageSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${wallet.hot-accounts.max-shards:64}") int maxShards) {
+        this.accountRepository = accountRepository;
+        this.shardRepository = shardRepository;
+        this.mapper = mapper;
+        this.messageSource = messageSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxShards = maxShards;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${wallet.hot-accounts.refresh-interval:PT30S}")
+    public void refreshHotAccounts() {
+        hotAccountIds = Set.copyOf(accountRepository.findHotAccountIds());
+    }
+
+    @Override
+    public boolean isHot(Long accountId) {
+        return hotAccountIds.contains(accountId);
+    }
+
+    /**
+     * Adds the amount to a random shard of the account. Must run inside the
+     * transaction that writes the matching journal posting.
+     */
+    @Override
+    public void credit(Account account, Money amount) {
+        int shard = ThreadLocalRandom.current().nextInt(Math.max(account.getBalanceShards(), 1));
+        if (shardRepository.credit(account.getId(), shard, amount.getCents()) == 0) {
+            // No shard row (the account is not hot any more): credit the account row itself.
+            entityManager.refresh(account, LockModeType.PESSIMISTIC_WRITE);
+            account.setBalance(account.getBalance().plus(amount));
+        }
+    }
+
+    /**
+     * Moves every shard of the account into its balance row. The account must
+     * already be locked or version-checked by the caller's transaction.
+     */
+    @Override
+    public void foldInto(Account account) {
+        Money pending = Money.ZERO;
+        for (AccountBalanceShard shard : shardRepository.findAllByAccountIdForUpdate(account.getId())) {
+            pending = pending.plus(shard.getBalance());
+            shard.setBalance(Money.ZERO);
+        }
+        if (pending.getCents() != 0) {
+            account.setBalance(account.getBalance().plus(pending));
+        }
+    }
+
+    /**
+     * Folds the shards of a hot account into its row when the row alone cannot
+     * cover a debit of {@code amount}, so debits are checked against the sum.
+     * Same locking requirement as {@link #foldInto}.
+     */
+    @Override
+    public void foldIfShort(Account account, Money amount) {
+        if (account.getBalanceShards() > 0 && account.getBalance().isLessThan(amount)) {
+            foldInto(account);
+        }
+    }
+
+    @Override
+    @Transactional
+    public AccountDto markHot(Long accountId, int shards) {
+        if (shards < 0 || shards > maxShards) {
+            throw new BalanceShardException(messageSource.getMessage("account.balanceshards.exception",
+                    new Object[]{maxShards}, Locale.ENGLISH));
+        }
+        Account account = accountRepository.findByIdForUpdate(accountId).orElseThrow(() ->
+                new ResourceNotFoundException(messageSource.getMessage("account.notfound.exception",
+                        new Object[]{accountId}, Locale.ENGLISH)));
+        foldInto(account);
+        int existing = shardRepository.findAllByAccountId(accountId).size();
+        for (int shard = existing; shard < shards; shard++) {
+            shardRepository.save(new AccountBalanceShard(accountId, shard));
+        }
+        account.setBalanceShards(shards);
+        refreshHotAccounts();
+        return mapper.map(account, AccountDto.class);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.hot-accounts.fold-interval:PT10S}")
+    public void foldPendingCredits() {
+        for (Long accountId : shardRepository.findAccountIdsWithPendingCredits()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    accountRepository.findByIdForUpdate(accountId).ifPresent(this::foldInto));
+        }
+    }
+
+    @Override
+    public List<AccountDto> withShardBalances(List<AccountDto> accounts) {
+        if (hotAccountIds.isEmpty() || accounts.stream().noneMatch(account -> isHot(account.getId()))) {
+            return accounts;
+        }
+        Map<Long, Long> pending = new HashMap<>();
+        for (Object[] row : shardRepository.sumByAccountIds(accounts.stream().map(AccountDto::getId).toList())) {
+            pending.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        for (AccountDto account : accounts) {
+            Long cents = pending.get(account.getId());
+            if (cents != null && cents != 0) {
+                account.setBalance(account.getBalance().plus(Money.ofCents(cents)));
+            }
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,169 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.IdempotentResponseDto;
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransferRequestStatusDto;
+import com.alkemy.wallet.exception.IdempotencyConflictException;
+import com.alkemy.wallet.service.interfaces.IIdempotencyService;
+import com.alkemy.wallet.service.interfaces.IIdempotencyStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.context.MessageSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response of a money-moving request when the client retries it
+ * with the same {@code Idempotency-Key}. Keys are scoped by user and operation, and a
+ * replay is answered from the store before any account is looked up. Each key is bound
+ * to a hash of the request it was first used with; reusing it for a different amount
+ * or account is refused instead of replayed. Only successful responses are kept; a
+ * failed attempt frees the key so the client can try again. A transfer queued with
+ * 202 Accepted also keeps the key, and a retry gets the same request id and Location
+ * back instead of queueing the transfer a second time.
+ */
+@Hidden
+@Service
+public class IdempotencyService implements IIdempotencyService {
+
+    private final IIdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final MessageSource messageSource;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter conflicts;
+
+    public IdempotencyService(IIdempotencyStore idempotencyStore,
+                              ObjectMapper objectMapper,
+                              MessageSource messageSource,
+                              MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.messageSource = messageSource;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.conflicts = counter(meterRegistry, "conflict");
+        Gauge.builder("wallet.idempotency.hit.ratio", this, IdempotencyService::hitRatio)
+                .description("Share of keyed requests answered from the idempotency store")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ResponseEntity<?> execute(String idempotencyKey, String operation, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = scopedKey(idempotencyKey, operation);
+        String requestHash = hash(request);
+
+        Optional<IdempotentResponseDto> stored = idempotencyStore.find(key);
+        if (stored.isPresent()) {
+            return replay(stored.get(), requestHash);
+        }
+        if (!idempotencyStore.reserve(key, requestHash)) {
+            // The first request may have completed between find and reserve.
+            stored = idempotencyStore.find(key);
+            if (stored.isPresent()) {
+                return replay(stored.get(), requestHash);
+            }
+            conflicts.increment();
+            throw new IdempotencyConflictException(
+                    messageSource.getMessage("idempotency.inflight.exception", null, Locale.ENGLISH));
+        }
+        misses.increment();
+
+        boolean completed = false;
+        try {
+            ResponseEntity<?> response = action.get();
+            IdempotentResponseDto storable = storable(response, requestHash);
+            if (storable != null) {
+                idempotencyStore.complete(key, storable);
+                completed = true;
+            }
+            return response;
+        } finally {
+            if (!completed) {
+                idempotencyStore.release(key);
+            }
+        }
+    }
+
+    private static IdempotentResponseDto storable(ResponseEntity<?> response, String requestHash) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return null;
+        }
+        IdempotentResponseDto.IdempotentResponseDtoBuilder stored = IdempotentResponseDto.builder()
+                .status(response.getStatusCodeValue())
+                .requestHash(requestHash);
+        if (response.getBody() instanceof ResponseTransactionDto transaction) {
+            return stored.body(transaction).build();
+        }
+        if (response.getBody() instanceof TransferRequestStatusDto transferRequest) {
+            URI location = response.getHeaders().getLocation();
+            return stored.transferRequest(transferRequest)
+                    .location(location == null ? null : location.toString())
+                    .build();
+        }
+        return null;
+    }
+
+    private ResponseEntity<?> replay(IdempotentResponseDto stored, String requestHash) {
+        if (!requestHash.equals(stored.getRequestHash())) {
+            conflicts.increment();
+            throw new IdempotencyConflictException(
+                    messageSource.getMessage("idempotency.mismatch.exception", null, Locale.ENGLISH));
+        }
+        hits.increment();
+        return replay(stored);
+    }
+
+    private static ResponseEntity<?> replay(IdempotentResponseDto stored) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.getStatus());
+        if (stored.getLocation() != null) {
+            response.location(URI.create(stored.getLocation()));
+        }
+        return response.body(stored.getTransferRequest() != null ? stored.getTransferRequest() : stored.getBody());
+    }
+
+    private String scopedKey(String idempotencyKey, String operation) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String principal = auth == null ? "anonymous" : auth.getName();
+        return principal + ":" + operation + ":" + idempotencyKey;
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Request cannot be hashed", e);
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("wallet.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
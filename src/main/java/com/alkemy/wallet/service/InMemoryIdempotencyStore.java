@@ -0,0 +1,54 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.IdempotentResponseDto;
+import com.alkemy.wallet.service.interfaces.IIdempotencyStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Default store: a size-bounded Caffeine cache whose entries expire a fixed time
+ * after they are written. Keys only survive while the instance is up.
+ */
+@Hidden
+@Service
+@ConditionalOnProperty(name = "wallet.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IIdempotencyStore {
+
+    private final Cache<String, IdempotentResponseDto> responses;
+
+    public InMemoryIdempotencyStore(@Value("${wallet.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${wallet.idempotency.max-size:100000}") long maxSize) {
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Override
+    public Optional<IdempotentResponseDto> find(String key) {
+        IdempotentResponseDto response = responses.getIfPresent(key);
+        return response == null || response.getStatus() == 0 ? Optional.empty() : Optional.of(response);
+    }
+
+    @Override
+    public boolean reserve(String key, String requestHash) {
+        return responses.asMap().putIfAbsent(key, IdempotentResponseDto.builder().requestHash(requestHash).build()) == null;
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponseDto response) {
+        responses.put(key, response);
+    }
+
+    @Override
+    public void release(String key) {
+        responses.asMap().computeIfPresent(key, (k, response) -> response.getStatus() == 0 ? null : response);
+    }
+}
@@ -0,0 +1,103 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.IdempotentResponseDto;
+import com.alkemy.wallet.model.IdempotencyRecord;
+import com.alkemy.wallet.repository.IIdempotencyRepository;
+import com.alkemy.wallet.service.interfaces.IIdempotencyStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Table-backed store, shared by every instance pointing at the same database.
+ * The primary key on the idempotency key is what rejects a concurrent duplicate,
+ * and expired rows are purged on a fixed delay.
+ */
+@Hidden
+@Service
+@ConditionalOnProperty(name = "wallet.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IIdempotencyStore {
+
+    private final IIdempotencyRepository idempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public JdbcIdempotencyStore(IIdempotencyRepository idempotencyRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${wallet.idempotency.ttl:24h}") Duration ttl) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<IdempotentResponseDto> find(String key) {
+        return idempotencyRepository.findById(key)
+                .filter(record -> record.getStatus() != 0 && record.getExpiresAt().isAfter(Instant.now()))
+                .map(this::toResponse);
+    }
+
+    @Override
+    public boolean reserve(String key, String requestHash) {
+        idempotencyRepository.findById(key)
+                .filter(record -> record.getExpiresAt().isBefore(Instant.now()))
+                .ifPresent(idempotencyRepository::delete);
+        try {
+            idempotencyRepository.saveAndFlush(new IdempotencyRecord(key, requestHash, Instant.now().plus(ttl)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void complete(String key, IdempotentResponseDto response) {
+        idempotencyRepository.findById(key).ifPresent(record -> {
+            record.setStatus(response.getStatus());
+            record.setBody(toJson(response));
+            record.setExpiresAt(Instant.now().plus(ttl));
+        });
+    }
+
+    @Override
+    @Transactional
+    public void release(String key) {
+        idempotencyRepository.findById(key)
+                .filter(record -> record.getStatus() == 0)
+                .ifPresent(idempotencyRepository::delete);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${wallet.idempotency.purge-interval:PT1M}")
+    public void purgeExpired() {
+        idempotencyRepository.deleteExpired(Instant.now());
+    }
+
+    private IdempotentResponseDto toResponse(IdempotencyRecord record) {
+        try {
+            return objectMapper.readValue(record.getBody(), IdempotentResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for " + record.getKey() + " is not readable", e);
+        }
+    }
+
+    private String toJson(IdempotentResponseDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored", e);
+        }
+    }
+}
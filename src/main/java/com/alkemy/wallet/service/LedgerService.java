@@ -0,0 +1,83 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.LedgerRebuildDto;
+import com.alkemy.wallet.repository.IAccountBalanceShardRepository;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.service.interfaces.ILedgerService;
+import com.alkemy.wallet.util.BalanceCache;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Recomputes every account balance from the transactions journal.
+ * Accounts are split in {@code wallet.ledger.rebuild.partitions} partitions by id
+ * and each partition is rebuilt on its own thread and database transaction, after
+ * locking its rows so no transfer can post to them halfway through. The balance
+ * shards of the partition are zeroed first, which also locks them against new
+ * hot-account credits until the partition commits.
+ */
+@Hidden
+@Service
+public class LedgerService implements ILedgerService {
+
+    private final IAccountRepository accountRepository;
+    private final IAccountBalanceShardRepository shardRepository;
+    private final BalanceCache balanceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitions;
+
+    public LedgerService(IAccountRepository accountRepository,
+                         IAccountBalanceShardRepository shardRepository,
+                         BalanceCache balanceCache,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${wallet.ledger.rebuild.partitions:4}") int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("wallet.ledger.rebuild.partitions must be greater than 0");
+        }
+        this.accountRepository = accountRepository;
+        this.shardRepository = shardRepository;
+        this.balanceCache = balanceCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = partitions;
+    }
+
+    @Override
+    public LedgerRebuildDto rebuildBalances() {
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        try {
+            List<Future<Integer>> rebuilt = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                int current = partition;
+                rebuilt.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    accountRepository.lockPartition(partitions, current);
+                    shardRepository.resetPartition(partitions, current);
+                    return accountRepository.rebuildBalances(partitions, current);
+                })));
+            }
+            int accounts = 0;
+            for (Future<Integer> partition : rebuilt) {
+                accounts += partition.get();
+            }
+            balanceCache.clear();
+            return new LedgerRebuildDto(partitions, accounts, System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Balance rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Balance rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.enums.ExportFormat;
+import com.alkemy.wallet.repository.IUserRepository;
+import com.alkemy.wallet.service.interfaces.ITransactionExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Streams a user's whole history straight from a forward-only, read-only JDBC cursor
+ * to the response. Rows are fetched {@code wallet.transactions.export.fetch-size} at a
+ * time and written as soon as they are read, so heap use does not grow with the
+ * number of rows. On MySQL the fetch size is only honoured with
+ * {@code useCursorFetch=true} on the connection URL.
+ */
+@Hidden
+@Service
+public class TransactionExportService implements ITransactionExportService {
+
+    static final String[] COLUMNS = {"id", "transferId", "date", "type", "amount", "currency", "accountId",
+            "description"};
+
+    private static final String EXPORT_SQL = "SELECT t.transaction_id, t.transfer_id, t.transaction_date, t.type, "
+            + "t.amount, a.currency, t.account_id, t.description "
+            + "FROM transactions t JOIN accounts a ON a.id = t.account_id "
+            + "WHERE a.user_id = ? AND t.transaction_date >= ? AND t.transaction_date < ? "
+            + "ORDER BY t.transaction_date, t.transaction_id";
+
+    private static final Instant FAR_FUTURE = Instant.parse("9999-12-31T00:00:00Z");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IUserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public TransactionExportService(JdbcTemplate jdbcTemplate,
+                                    IUserRepository userRepository,
+                                    ObjectMapper objectMapper,
+                                    @Value("${wallet.transactions.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Users can only read or export their own history; administrators can read anyone's.
+     * Checked before the response is committed, since the stream itself runs on another thread.
+     */
+    @Override
+    public void checkHistoryAllowed(Long userId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = auth.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+        if (!admin && userRepository.findDtoByIdAndEmail(userId, auth.getName()).isEmpty()) {
+            throw new AccessDeniedException("You can not read another user´s transactions");
+        }
+    }
+
+    /**
+     * Writes the user's postings in {@code [from, to)}, oldest first, and returns how many were written.
+     */
+    @Override
+    public long export(Long userId, ExportFormat format, Instant from, Instant to, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = null;
+        if (format == ExportFormat.ndjson) {
+            // one object per line: no separator between root values, and flushes stop at the writer buffer
+            json = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .setRootValueSeparator(null);
+        }
+        JsonGenerator ndjson = json;
+        if (format == ExportFormat.csv) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, userId);
+                statement.setTimestamp(2, Timestamp.from(from == null ? Instant.EPOCH : from));
+                statement.setTimestamp(3, Timestamp.from(to == null ? FAR_FUTURE : to));
+                return statement;
+            }, resultSet -> {
+                try {
+                    if (ndjson != null) {
+                        writeJson(ndjson, resultSet);
+                        ndjson.flush();
+                    } else {
+                        writeCsv(writer, resultSet);
+                    }
+                    writer.write('\n');
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    private static void writeCsv(Writer writer, ResultSet row) throws SQLException, IOException {
+        writer.write(String.valueOf(row.getLong(1)));
+        writer.write(',');
+        writer.write(csv(row.getString(2)));
+        writer.write(',');
+        writer.write(row.getTimestamp(3).toInstant().toString());
+        writer.write(',');
+        writer.write(row.getString(4));
+        writer.write(',');
+        writer.write(Money.ofCents(row.getLong(5)).toString());
+        writer.write(',');
+        writer.write(row.getString(6));
+        writer.write(',');
+        writer.write(String.valueOf(row.getLong(7)));
+        writer.write(',');
+        writer.write(csv(row.getString(8)));
+    }
+
+    private static void writeJson(JsonGenerator json, ResultSet row) throws SQLException, IOException {
+        json.writeStartObject();
+        json.writeNumberField(COLUMNS[0], row.getLong(1));
+        json.writeStringField(COLUMNS[1], row.getString(2));
+        json.writeStringField(COLUMNS[2], row.getTimestamp(3).toInstant().toString());
+        json.writeStringField(COLUMNS[3], row.getString(4));
+        json.writeNumberField(COLUMNS[4], Money.ofCents(row.getLong(5)).toBigDecimal());
+        json.writeStringField(COLUMNS[5], row.getString(6));
+        json.writeNumberField(COLUMNS[6], row.getLong(7));
+        json.writeStringField(COLUMNS[7], row.getString(8));
+        json.writeEndObject();
+    }
+
+    /**
+     * RFC 4180 quoting: fields holding a separator, quote or line break are quoted and quotes doubled.
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -2,23 +2,35 @@ package com.alkemy.wallet.service;
 
 
 import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.BatchTransactionResultDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
 import com.alkemy.wallet.dto.RequestTransactionDto;
 import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransactionFilterDto;
+import com.alkemy.wallet.dto.TransferDto;
 import com.alkemy.wallet.exception.*;
 import com.alkemy.wallet.mapper.Mapper;
 import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.Transaction;
-import com.alkemy.wallet.model.User;
-import com.alkemy.wallet.model.enums.TypeOfTransaction;
+import com.alkemy.wallet.model.enums.Currency;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.ITransactionRepository;
-import com.alkemy.wallet.repository.IUserRepository;
+import com.alkemy.wallet.repository.TransactionSpecifications;
 import com.alkemy.wallet.service.interfaces.IAccountService;
+import com.alkemy.wallet.service.interfaces.IHotAccountService;
 import com.alkemy.wallet.service.interfaces.ITransactionService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
 import com.alkemy.wallet.service.interfaces.IUserService;
+import com.alkemy.wallet.util.AccountLockManager;
+import com.alkemy.wallet.util.CurrentUser;
 import com.alkemy.wallet.util.JwtUtil;
+import com.alkemy.wallet.util.KeysetCursor;
+import com.alkemy.wallet.util.OptimisticRetry;
+import com.alkemy.wallet.util.TransferPipeline;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -28,20 +40,37 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.validation.Valid;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
-import static org.hibernate.internal.CoreLogging.logger;
 
 @Hidden
 @Service
 public class TransactionService implements ITransactionService {
 
+    /**
+     * Newest first on (transaction_date, transaction_id), the order of the history queries.
+     */
+    private static final Comparator<ResponseTransactionDto> HISTORY_ORDER = Comparator
+            .comparing(ResponseTransactionDto::getTransactionDate)
+            .thenComparing(ResponseTransactionDto::getId)
+            .reversed();
+
     @Autowired
     Mapper mapper;
 
@@ -52,7 +81,7 @@ public class TransactionService implements ITransactionService {
     IUserService userService;
 
     @Autowired
-    IUserRepository userRepository;
+    CurrentUser currentUser;
 
     @Autowired
     IAccountService accountService;
@@ -60,24 +89,45 @@ public class TransactionService implements ITransactionService {
     @Autowired
     IAccountRepository accountRepository;
 
+    @Autowired
+    ITransferService transferService;
+
+    @Autowired
+    AccountLockManager accountLockManager;
+
+    @Autowired
+    OptimisticRetry optimisticRetry;
+
+    @Autowired
+    IHotAccountService hotAccountService;
+
+    @Autowired
+    TransferPipeline transferPipeline;
+
     @Autowired
     JwtUtil jwtUtil;
 
     @Autowired
     MessageSource messageSource;
 
-    @Override
-    public HashSet<ResponseTransactionDto> getByUserId(@Valid List<Account> accounts) {
+    @Value("${wallet.transfer.batch.max-size:1000}")
+    int maxBatchSize;
 
-        List<Long> accounts_id = new ArrayList<>();
-        for (Account account : accounts) {
-            accounts_id.add(account.getId());
-        }
+    @Value("${wallet.transfer.pipeline.await-timeout:30s}")
+    Duration pipelineAwaitTimeout;
 
-        return transactionRepository.findByAccount_idIn(accounts_id).stream().map((transaction) ->
-                        mapper.getMapper().map(transaction, ResponseTransactionDto.class))
-                .collect(Collectors.toCollection(HashSet::new));
+    @Value("${wallet.transactions.page.max-size:100}")
+    int maxHistoryPageSize;
 
+    /**
+     * Filters are applied in SQL and at most {@code size} rows, capped by
+     * {@code wallet.transactions.page.max-size}, are read, newest first.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResponseTransactionDto> getByUserId(Long userId, TransactionFilterDto filter, int size) {
+        int limit = Math.max(1, Math.min(size, maxHistoryPageSize));
+        return transactionRepository.findDtos(TransactionSpecifications.matching(userId, filter), limit);
     }
 
     @Override
@@ -90,37 +140,120 @@ public class TransactionService implements ITransactionService {
     @Override
     public ResponseEntity<Object> makeTransaction(RequestTransactionDto destinedTransactionDto) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            User senderUser = userRepository.findByEmail(auth.getName());
-            Account senderAccount = accountService.getAccountByCurrency(senderUser.getId(),
+            checkTransactionAmount(destinedTransactionDto.getAmount());
+            Long senderUserId = currentUser.getId();
+            Long senderAccountId = accountService.getAccountIdByCurrency(senderUserId,
                     destinedTransactionDto.getAccount().getCurrency());
-            Account destinedAccount = accountRepository.findById(destinedTransactionDto.getAccount()
-                    .getId()).orElseThrow(() -> new ResourceNotFoundException(messageSource
-                    .getMessage("account.notfound.receiving.exception",
-                            new Object[]{destinedTransactionDto.getAccount().getId()}, Locale.ENGLISH)));
-            accountService.checkAccountLimit(senderAccount, destinedTransactionDto);
-            checkBalance(senderAccount.getBalance(), destinedTransactionDto.getAmount());
-            ResponseTransactionDto transactionPayment = createTransactions(new Transaction(destinedTransactionDto.getAmount(), TypeOfTransaction.income, destinedTransactionDto.getDescription(), destinedAccount),
-                    new Transaction(destinedTransactionDto.getAmount(), TypeOfTransaction.payment, destinedTransactionDto.getDescription(), mapper.getMapper().map(senderAccount, Account.class)));
-
-            senderAccount.setBalance(senderAccount.getBalance() - transactionPayment.getAmount());
-            destinedAccount.setBalance(senderAccount.getBalance() + transactionPayment.getAmount());
-            accountRepository.save(senderAccount);
-            accountRepository.save(destinedAccount);
-            //vuelvo a setear el sender account en la transaccion con el nuevo balance de la cuenta
-            transactionPayment.setAccount(mapper.getMapper().map(senderAccount, AccountDto.class));
-            return ResponseEntity.status(HttpStatus.OK).body(transactionPayment);
+            Long destinedAccountId = destinedTransactionDto.getAccount().getId();
+            if (transferPipeline.isEnabled()) {
+                return ResponseEntity.status(HttpStatus.OK)
+                        .body(awaitGroupCommit(new TransferDto(senderAccountId, destinedTransactionDto)));
+            }
+            Transaction transactionPayment = optimisticRetry.execute("makeTransaction", () ->
+                    accountLockManager.withLocks(() ->
+                            transferService.transfer(senderAccountId, destinedAccountId, destinedTransactionDto),
+                            stripedAccountIds(senderAccountId, destinedAccountId)));
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(mapper.getMapper().map(transactionPayment, ResponseTransactionDto.class));
         } catch (ResourceNotFoundException | UserNotLoggedException | AccountLimitException |
-                NotEnoughCashException e) {
-            System.out.println(e.getMessage());
+                NotEnoughCashException | NoAmountException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e);
         }
     }
 
+    private ResponseTransactionDto awaitGroupCommit(TransferDto transfer) {
+        BatchTransactionResultDto result;
+        try {
+            result = transferPipeline.submit(transfer).get(pipelineAwaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new TransferPipelineUnavailableException(
+                    messageSource.getMessage("transfer.pipeline.timeout.exception", null, Locale.ENGLISH));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the group commit", e);
+        }
+        if (!result.isSuccessful()) {
+            throw result.getException();
+        }
+        return result.getTransaction();
+    }
+
+    @Override
+    public List<BatchTransactionResultDto> makeTransactions(List<RequestTransactionDto> transactionDtos) {
+        if (transactionDtos == null || transactionDtos.isEmpty() || transactionDtos.size() > maxBatchSize) {
+            throw new TransactionBatchException(messageSource.getMessage("transaction.batch.size.exception",
+                    new Object[]{maxBatchSize}, Locale.ENGLISH));
+        }
+        Long senderUserId = currentUser.getId();
+
+        Set<Long> destinedAccountIds = transactionDtos.stream()
+                .filter(transactionDto -> transactionDto.getAccount() != null
+                        && transactionDto.getAccount().getId() != null)
+                .map(transactionDto -> transactionDto.getAccount().getId())
+                .collect(Collectors.toSet());
+        List<Account> knownAccounts = destinedAccountIds.isEmpty()
+                ? accountRepository.findAllByUser_Id(senderUserId)
+                : accountRepository.findAllByUser_IdOrIdIn(senderUserId, destinedAccountIds);
+        Map<Currency, Long> senderAccountIds = new EnumMap<>(Currency.class);
+        Set<Long> knownAccountIds = new HashSet<>();
+        for (Account account : knownAccounts) {
+            knownAccountIds.add(account.getId());
+            if (account.getUser() != null && senderUserId.equals(account.getUser().getId())) {
+                senderAccountIds.put(account.getCurrency(), account.getId());
+            }
+        }
+
+        BatchTransactionResultDto[] results = new BatchTransactionResultDto[transactionDtos.size()];
+        List<TransferDto> transfers = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        Set<Long> lockedAccountIds = new HashSet<>();
+        for (int i = 0; i < transactionDtos.size(); i++) {
+            RequestTransactionDto transactionDto = transactionDtos.get(i);
+            try {
+                checkTransactionAmount(transactionDto.getAmount());
+                AccountDto destinedAccount = transactionDto.getAccount();
+                if (destinedAccount == null || !knownAccountIds.contains(destinedAccount.getId())) {
+                    throw new ResourceNotFoundException(messageSource.getMessage(
+                            "account.notfound.receiving.exception",
+                            new Object[]{destinedAccount == null ? null : destinedAccount.getId()},
+                            Locale.ENGLISH));
+                }
+                Long senderAccountId = senderAccountIds.get(destinedAccount.getCurrency());
+                if (senderAccountId == null) {
+                    throw new ResourceNotFoundException(messageSource.getMessage("account.notfound.currency.exception",
+                            new Object[]{destinedAccount.getCurrency()}, Locale.ENGLISH));
+                }
+                transfers.add(new TransferDto(senderAccountId, transactionDto));
+                positions.add(i);
+                lockedAccountIds.add(senderAccountId);
+                if (!hotAccountService.isHot(destinedAccount.getId())) {
+                    lockedAccountIds.add(destinedAccount.getId());
+                }
+            } catch (NoAmountException | ResourceNotFoundException e) {
+                results[i] = BatchTransactionResultDto.failed(i, e);
+            }
+        }
+
+        if (!transfers.isEmpty()) {
+            List<BatchTransactionResultDto> applied = optimisticRetry.execute("makeTransactions", () ->
+                    accountLockManager.withLocks(() ->
+                            transferService.transferAll(transfers), lockedAccountIds.toArray(new Long[0])));
+            for (int i = 0; i < applied.size(); i++) {
+                BatchTransactionResultDto result = applied.get(i);
+                result.setIndex(positions.get(i));
+                results[positions.get(i)] = result;
+            }
+        }
+        return Arrays.asList(results);
+    }
+
     @Override
     public Page<ResponseTransactionDto> findAllTransactionsByUserIdPageable(Long id, int page) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByEmail(auth.getName());
         Pageable pageable = PageRequest.of(page, 10);
 
         Page<ResponseTransactionDto> pageTransactions = transactionRepository.findByAccount_User_Id(id, pageable).map((transaction) ->
@@ -130,50 +263,106 @@ public class TransactionService implements ITransactionService {
 
     }
 
-    public ResponseEntity<?> getTransaction(Long id) {
+    /**
+     * Seeks the user's history, newest first, from the (date, id) position wrapped by the
+     * cursor, so every slice costs the same whatever its depth. Each account is sought on
+     * its own index range and the slices are merged, since no index gives the order across
+     * a user's accounts. One extra row is read to know whether the slice has a neighbour in
+     * the direction it was read; the other direction always has one once a cursor was
+     * followed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageDto<ResponseTransactionDto> findTransactionsByUserId(Long userId, String cursor, int size) {
+        KeysetCursor.Position position;
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (userRepository.findByEmail(auth.getName()) == (transactionRepository.findById(id)).get().getAccount().getUser()) {
-            return ResponseEntity.status(HttpStatus.OK)
-                    .body(mapper.getMapper()
-                            .map(transactionRepository.findById(id), ResponseTransactionDto.class));
-            } throw new UserNotLoggedException(messageSource.getMessage(
-                    "user.notlogged.exception",
-                    new Object[]{id},
-                    Locale.ENGLISH));
-        } catch (UserNotLoggedException e) {
-            System.out.println(e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e);
+            position = KeysetCursor.decodePosition(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(messageSource.getMessage("keyset.cursor.invalid.exception",
+                    null, Locale.ENGLISH));
         }
+        int limit = Math.max(1, Math.min(size, maxHistoryPageSize));
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        boolean backwards = position != null && position.before();
+
+        List<ResponseTransactionDto> rows = new ArrayList<>();
+        for (Long accountId : accountRepository.findIdsByUserId(userId)) {
+            if (position == null) {
+                rows.addAll(transactionRepository.findAccountHistory(accountId, fetch));
+            } else if (backwards) {
+                rows.addAll(transactionRepository.findAccountHistoryNewerThan(accountId, position.date(),
+                        position.id(), fetch));
+            } else {
+                rows.addAll(transactionRepository.findAccountHistoryOlderThan(accountId, position.date(),
+                        position.id(), fetch));
+            }
+        }
+        rows.sort(backwards ? HISTORY_ORDER.reversed() : HISTORY_ORDER);
+        if (rows.size() > limit + 1) {
+            rows = rows.subList(0, limit + 1);
+        }
+        boolean more = rows.size() > limit;
+        List<ResponseTransactionDto> content = new ArrayList<>(more ? rows.subList(0, limit) : rows);
+        if (backwards) {
+            Collections.reverse(content);
+        }
+
+        KeysetPageDto<ResponseTransactionDto> slice = KeysetPageDto.<ResponseTransactionDto>builder()
+                .content(content)
+                .build();
+        if (!content.isEmpty()) {
+            ResponseTransactionDto newest = content.get(0);
+            ResponseTransactionDto oldest = content.get(content.size() - 1);
+            if (backwards || more) {
+                slice.setNext(KeysetCursor.encode(
+                        KeysetCursor.Position.after(oldest.getTransactionDate(), oldest.getId())));
+            }
+            if (position != null && (!backwards || more)) {
+                slice.setPrev(KeysetCursor.encode(
+                        KeysetCursor.Position.before(newest.getTransactionDate(), newest.getId())));
+            }
+        }
+        return slice;
     }
 
+    /**
+     * Reads the transaction as a DTO in one query that also checks it belongs to
+     * the logged user; someone else's transaction is reported as not found.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getTransaction(Long id) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(findOwnTransaction(id, auth.getName()));
+    }
+
+    @Override
+    @Transactional
     public ResponseEntity<?> patchTransaction(Long id, String description) {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (userRepository.findByEmail(auth.getName()) == (transactionRepository.findById(id)).get().getAccount().getUser()) {
-                Transaction transaction = transactionRepository.findById(id).orElseThrow(() ->
-                        new ResourceNotFoundException(messageSource.getMessage(
-                                "transaction.notfound.exception",
-                                new Object[]{id},
-                                Locale.ENGLISH)));
-                transaction.setDescription(description);
-                return ResponseEntity.status(HttpStatus.OK)
-                        .body(mapper.getMapper()
-                                .map(transactionRepository.save(transaction), ResponseTransactionDto.class));
-            } throw new UserNotLoggedException(messageSource.getMessage(
-                    "user.notlogged.exception",
-                    new Object[]{id},
-                    Locale.ENGLISH));
-        } catch (UserNotLoggedException e) {
-            logger(e.getMessage());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (transactionRepository.updateDescriptionByIdAndOwnerEmail(id, auth.getName(), description) == 0) {
+            throw transactionNotFound(id);
         }
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(findOwnTransaction(id, auth.getName()));
+    }
+
+    private ResponseTransactionDto findOwnTransaction(Long id, String email) {
+        return transactionRepository.findDtoByIdAndOwnerEmail(id, email)
+                .orElseThrow(() -> transactionNotFound(id));
+    }
+
+    private ResourceNotFoundException transactionNotFound(Long id) {
+        return new ResourceNotFoundException(messageSource.getMessage(
+                "transaction.notfound.exception",
+                new Object[]{id},
+                Locale.ENGLISH));
     }
 
     @Override
-    public boolean checkBalance(Double balance, Double amount) {
-        if (balance < amount) {
+    public boolean checkBalance(Money balance, Money amount) {
+        if (balance.isLessThan(amount)) {
             throw new NotEnoughCashException(messageSource
                     .getMessage("notenoughcash.exception", null, Locale.ENGLISH));
         }
@@ -181,8 +370,8 @@ public class TransactionService implements ITransactionService {
     }
 
     @Override
-    public boolean checkTransactionAmount(Double amount) {
-        if (amount <= 0) {
+    public boolean checkTransactionAmount(Money amount) {
+        if (amount == null || !amount.isPositive()) {
             throw new NoAmountException(messageSource
                     .getMessage("amount.exception", null, Locale.ENGLISH));
         }
@@ -192,19 +381,10 @@ public class TransactionService implements ITransactionService {
     @Override
     public ResponseEntity<?> createPayment(RequestTransactionDto transactionDto) {
         try {
-            Account account = accountRepository.findById(transactionDto.getAccount().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            messageSource.getMessage("account.notfound.exception",
-                                    new Object[]{transactionDto.getAccount().getId()},
-                                    Locale.ENGLISH)));
             checkTransactionAmount(transactionDto.getAmount());
-            account.setBalance(account.getBalance() - transactionDto.getAmount());
-            Transaction transaction = transactionRepository.save(new Transaction(
-                    transactionDto.getAmount(),
-                    TypeOfTransaction.payment,
-                    transactionDto.getDescription(),
-                    account));
-            accountRepository.save(account);
+            Long accountId = transactionDto.getAccount().getId();
+            Transaction transaction = optimisticRetry.execute("createPayment", () ->
+                    accountLockManager.withLocks(() -> transferService.payment(accountId, transactionDto), accountId));
 
             return ResponseEntity.status(HttpStatus.ACCEPTED).body(mapper.getMapper().map(transaction, ResponseTransactionDto.class));
         } catch (NoAmountException e) {
@@ -215,19 +395,25 @@ public class TransactionService implements ITransactionService {
     @Override
     public ResponseEntity<?> createDeposit(RequestTransactionDto transactionDto) {
         try {
-            Account account = accountRepository.findById(transactionDto.getAccount().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            messageSource.getMessage(
-                                    "account.notfound.exception",
-                                    new Object[]{transactionDto.getAccount().getId()},
-                                    Locale.ENGLISH)));
             checkTransactionAmount(transactionDto.getAmount());
-            account.setBalance(account.getBalance() + transactionDto.getAmount());
-            Transaction transaction = transactionRepository.save(new Transaction(transactionDto.getAmount(), TypeOfTransaction.deposit, transactionDto.getDescription(), account));
+            Long accountId = transactionDto.getAccount().getId();
+            Transaction transaction = optimisticRetry.execute("createDeposit", () ->
+                    accountLockManager.withLocks(() -> transferService.deposit(accountId, transactionDto),
+                            hotAccountService.isHot(accountId) ? new Long[0] : new Long[]{accountId}));
             return ResponseEntity.status(HttpStatus.ACCEPTED).body(mapper.getMapper().map(transaction, ResponseTransactionDto.class));
         } catch (NoAmountException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e);
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Stripes to hold for a single transfer. A hot destination is credited on a
+     * balance shard, so it doesn't need to be serialized with other incomes.
+     */
+    private Long[] stripedAccountIds(Long senderAccountId, Long destinedAccountId) {
+        return !senderAccountId.equals(destinedAccountId) && hotAccountService.isHot(destinedAccountId)
+                ? new Long[]{senderAccountId}
+                : new Long[]{senderAccountId, destinedAccountId};
+    }
+
+}
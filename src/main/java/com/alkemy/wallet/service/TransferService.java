@@ -0,0 +1,292 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.BatchTransactionResultDto;
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransferDto;
+import com.alkemy.wallet.exception.AccountLimitException;
+import com.alkemy.wallet.exception.NotEnoughCashException;
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.mapper.Mapper;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Transaction;
+import com.alkemy.wallet.model.enums.LockingMode;
+import com.alkemy.wallet.model.enums.TypeOfTransaction;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.repository.ITransactionRepository;
+import com.alkemy.wallet.service.interfaces.IAccountService;
+import com.alkemy.wallet.service.interfaces.IHotAccountService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import com.alkemy.wallet.util.BalanceCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves money between two accounts inside a single database transaction.
+ * With {@code wallet.transfer.locking=pessimistic} both rows are read with
+ * SELECT ... FOR UPDATE, always in ascending id order, so two opposite transfers
+ * can never wait on each other. With {@code optimistic} the rows are read plainly
+ * and the {@code @Version} check on {@link Account} rejects a lost update at
+ * commit; callers retry through {@link com.alkemy.wallet.util.OptimisticRetry}.
+ * Batches load every account they touch with one ordered query and write all
+ * legs through Hibernate JDBC batching.
+ * <p>
+ * The transactions table is the journal: postings are only ever inserted, and the
+ * two legs of a transfer share a transfer id. {@link Account#getBalance()} is the
+ * projection of that journal, moved by the same delta in the same database
+ * transaction, and can be recomputed with {@link LedgerService#rebuildBalances()}.
+ * <p>
+ * A hot account that only receives money in an operation is neither locked nor
+ * written: its income goes to one of its balance shards through
+ * {@link IHotAccountService#credit}. A hot sender gets its shards folded back
+ * when its own row is short of the amount.
+ */
+@Hidden
+@Service
+public class TransferService implements ITransferService {
+
+    private final IAccountRepository accountRepository;
+    private final ITransactionRepository transactionRepository;
+    private final IAccountService accountService;
+    private final IHotAccountService hotAccountService;
+    private final BalanceCache balanceCache;
+    private final Mapper mapper;
+    private final MessageSource messageSource;
+    private final Timer lockWaitTimer;
+    private final LockingMode lockingMode;
+
+    public TransferService(IAccountRepository accountRepository,
+                           ITransactionRepository transactionRepository,
+                           IAccountService accountService,
+                           IHotAccountService hotAccountService,
+                           BalanceCache balanceCache,
+                           Mapper mapper,
+                           MessageSource messageSource,
+                           MeterRegistry meterRegistry,
+                           @Value("${wallet.transfer.locking:optimistic}") LockingMode lockingMode) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountService = accountService;
+        this.hotAccountService = hotAccountService;
+        this.balanceCache = balanceCache;
+        this.mapper = mapper;
+        this.messageSource = messageSource;
+        this.lockWaitTimer = Timer.builder("wallet.transfer.lock.wait")
+                .description("Time spent acquiring the account row locks of a transfer")
+                .register(meterRegistry);
+        this.lockingMode = lockingMode;
+    }
+
+    @Override
+    @Transactional
+    public Transaction transfer(Long senderAccountId, Long destinedAccountId, RequestTransactionDto transactionDto) {
+        boolean hotDestination = !senderAccountId.equals(destinedAccountId)
+                && hotAccountService.isHot(destinedAccountId);
+        Map<Long, Account> lockedAccounts = hotDestination
+                ? lockInOrder(senderAccountId)
+                : lockInOrder(senderAccountId, destinedAccountId);
+        Account destinedAccount = hotDestination
+                ? accountRepository.findById(destinedAccountId).orElseThrow(() ->
+                new ResourceNotFoundException(messageSource.getMessage("account.notfound.receiving.exception",
+                        new Object[]{destinedAccountId}, Locale.ENGLISH)))
+                : lockedAccounts.get(destinedAccountId);
+        List<Transaction> legs = new ArrayList<>(2);
+        Transaction payment = applyTransfer(lockedAccounts.get(senderAccountId),
+                destinedAccount, hotDestination, transactionDto, legs);
+        transactionRepository.saveAll(legs);
+        evictBalances(List.of(lockedAccounts.get(senderAccountId), destinedAccount));
+        return payment;
+    }
+
+    @Override
+    @Transactional
+    public List<BatchTransactionResultDto> transferAll(List<TransferDto> transfers) {
+        TreeSet<Long> ids = new TreeSet<>();
+        Set<Long> hotDestinations = new HashSet<>();
+        for (TransferDto transfer : transfers) {
+            ids.add(transfer.getSenderAccountId());
+        }
+        for (TransferDto transfer : transfers) {
+            Long destinedAccountId = transfer.getTransaction().getAccount().getId();
+            if (!ids.contains(destinedAccountId) && hotAccountService.isHot(destinedAccountId)) {
+                hotDestinations.add(destinedAccountId);
+            } else {
+                ids.add(destinedAccountId);
+            }
+        }
+        long start = System.nanoTime();
+        List<Account> accounts = lockingMode == LockingMode.pessimistic
+                ? accountRepository.findAllByIdInForUpdate(ids)
+                : accountRepository.findAllById(ids);
+        Map<Long, Account> lockedAccounts = accounts.stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!hotDestinations.isEmpty()) {
+            accountRepository.findAllById(hotDestinations)
+                    .forEach(account -> lockedAccounts.put(account.getId(), account));
+        }
+
+        List<Transaction> legs = new ArrayList<>(transfers.size() * 2);
+        List<Account> touched = new ArrayList<>(transfers.size() * 2);
+        Transaction[] payments = new Transaction[transfers.size()];
+        RuntimeException[] failures = new RuntimeException[transfers.size()];
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferDto transfer = transfers.get(i);
+            RequestTransactionDto transactionDto = transfer.getTransaction();
+            try {
+                Account senderAccount = requireAccount(lockedAccounts, transfer.getSenderAccountId(),
+                        "account.notfound.exception");
+                Account destinedAccount = requireAccount(lockedAccounts, transactionDto.getAccount().getId(),
+                        "account.notfound.receiving.exception");
+                payments[i] = applyTransfer(senderAccount, destinedAccount,
+                        hotDestinations.contains(destinedAccount.getId()), transactionDto, legs);
+                touched.add(senderAccount);
+                touched.add(destinedAccount);
+            } catch (ResourceNotFoundException | AccountLimitException | NotEnoughCashException e) {
+                failures[i] = e;
+            }
+        }
+        transactionRepository.saveAll(legs);
+        evictBalances(touched);
+
+        List<BatchTransactionResultDto> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            results.add(failures[i] == null
+                    ? BatchTransactionResultDto.succeeded(i,
+                    mapper.getMapper().map(payments[i], ResponseTransactionDto.class))
+                    : BatchTransactionResultDto.failed(i, failures[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Checks the sender against its limit and current balance, moves the amount
+     * and appends the income and payment legs to {@code legs}. A hot destination
+     * is credited on one of its balance shards instead of its own row.
+     */
+    private Transaction applyTransfer(Account senderAccount, Account destinedAccount, boolean hotDestination,
+                                      RequestTransactionDto transactionDto, List<Transaction> legs) {
+        accountService.checkAccountLimit(senderAccount, transactionDto);
+        hotAccountService.foldIfShort(senderAccount, transactionDto.getAmount());
+        if (senderAccount.getBalance().isLessThan(transactionDto.getAmount())) {
+            throw new NotEnoughCashException(messageSource
+                    .getMessage("notenoughcash.exception", null, Locale.ENGLISH));
+        }
+
+        senderAccount.setBalance(senderAccount.getBalance().minus(transactionDto.getAmount()));
+        if (hotDestination) {
+            hotAccountService.credit(destinedAccount, transactionDto.getAmount());
+        } else {
+            destinedAccount.setBalance(destinedAccount.getBalance().plus(transactionDto.getAmount()));
+        }
+
+        String transferId = UUID.randomUUID().toString();
+        Transaction payment = new Transaction(transferId, transactionDto.getAmount(), TypeOfTransaction.payment,
+                transactionDto.getDescription(), senderAccount);
+        legs.add(new Transaction(transferId, transactionDto.getAmount(), TypeOfTransaction.income,
+                transactionDto.getDescription(), destinedAccount));
+        legs.add(payment);
+        return payment;
+    }
+
+    /**
+     * Drops the cached balance summary of every owner of the given accounts once
+     * the surrounding transaction commits.
+     */
+    private void evictBalances(List<Account> accounts) {
+        balanceCache.evictAll(accounts.stream()
+                .filter(account -> account.getUser() != null)
+                .map(account -> account.getUser().getEmail())
+                .collect(Collectors.toSet()));
+    }
+
+    private Account requireAccount(Map<Long, Account> accounts, Long id, String messageKey) {
+        Account account = accounts.get(id);
+        if (account == null) {
+            throw new ResourceNotFoundException(messageSource.getMessage(messageKey,
+                    new Object[]{id}, Locale.ENGLISH));
+        }
+        return account;
+    }
+
+    @Override
+    @Transactional
+    public Transaction deposit(Long accountId, RequestTransactionDto transactionDto) {
+        Account account;
+        if (hotAccountService.isHot(accountId)) {
+            account = accountRepository.findById(accountId).orElseThrow(() ->
+                    new ResourceNotFoundException(messageSource.getMessage("account.notfound.exception",
+                            new Object[]{accountId}, Locale.ENGLISH)));
+            hotAccountService.credit(account, transactionDto.getAmount());
+        } else {
+            account = findAccount(accountId);
+            account.setBalance(account.getBalance().plus(transactionDto.getAmount()));
+        }
+        evictBalances(List.of(account));
+        return transactionRepository.save(new Transaction(UUID.randomUUID().toString(),
+                transactionDto.getAmount(), TypeOfTransaction.deposit,
+                transactionDto.getDescription(), account));
+    }
+
+    @Override
+    @Transactional
+    public Transaction payment(Long accountId, RequestTransactionDto transactionDto) {
+        Account account = findAccount(accountId);
+        hotAccountService.foldIfShort(account, transactionDto.getAmount());
+        account.setBalance(account.getBalance().minus(transactionDto.getAmount()));
+        evictBalances(List.of(account));
+        return transactionRepository.save(new Transaction(UUID.randomUUID().toString(),
+                transactionDto.getAmount(), TypeOfTransaction.payment,
+                transactionDto.getDescription(), account));
+    }
+
+    private Account findAccount(Long accountId) {
+        return load(accountId).orElseThrow(() ->
+                new ResourceNotFoundException(messageSource.getMessage("account.notfound.exception",
+                        new Object[]{accountId}, Locale.ENGLISH)));
+    }
+
+    private Optional<Account> load(Long accountId) {
+        return lockingMode == LockingMode.pessimistic
+                ? accountRepository.findByIdForUpdate(accountId)
+                : accountRepository.findById(accountId);
+    }
+
+    private Map<Long, Account> lockInOrder(Long senderAccountId, Long... destinedAccountIds) {
+        TreeSet<Long> ids = new TreeSet<>();
+        ids.add(senderAccountId);
+        ids.addAll(List.of(destinedAccountIds));
+
+        long start = System.nanoTime();
+        Map<Long, Account> lockedAccounts = new HashMap<>();
+        for (Long id : ids) {
+            lockedAccounts.put(id, load(id).orElseThrow(() ->
+                    new ResourceNotFoundException(messageSource.getMessage(
+                            !id.equals(senderAccountId)
+                                    ? "account.notfound.receiving.exception"
+                                    : "account.notfound.exception",
+                            new Object[]{id}, Locale.ENGLISH))));
+        }
+        lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return lockedAccounts;
+    }
+}
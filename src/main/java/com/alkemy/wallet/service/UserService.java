@@ -10,7 +10,10 @@ import com.alkemy.wallet.mapper.Mapper;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.repository.IUserRepository;
 import com.alkemy.wallet.service.interfaces.IUserService;
+import com.alkemy.wallet.util.CurrentUser;
 import com.alkemy.wallet.util.JwtUtil;
+import com.alkemy.wallet.util.UserCache;
+import com.alkemy.wallet.util.UserPrincipal;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
@@ -36,15 +39,21 @@ public class UserService implements IUserService {
     private AuthenticationManager authenticationManager;
 
     private final MessageSource messageSource;
+    private final UserCache userCache;
+    private final CurrentUser currentUser;
 
     public UserService(IUserRepository userRepository,
                        Mapper mapper,
                        JwtUtil jwtUtil,
-                       MessageSource messageSource) {
+                       MessageSource messageSource,
+                       UserCache userCache,
+                       CurrentUser currentUser) {
         this.userRepository = userRepository;
         this.mapper = mapper;
         this.jwtUtil = jwtUtil;
         this.messageSource = messageSource;
+        this.userCache = userCache;
+        this.currentUser = currentUser;
     }
 
     @Override
@@ -73,16 +82,19 @@ public class UserService implements IUserService {
 
     @Override
     public ResponseEntity<?> softDelete(Long id) {
-        try {Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            User loggedUser = userRepository.findByEmail(auth.getName());
+        try {
+            UserPrincipal loggedUser = UserPrincipal.current()
+                    .orElseGet(() -> UserPrincipal.of(currentUser.get()));
             User userToDelete = userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            if (loggedUser.getRole().getName() == RoleName.ROLE_ADMIN) {
+            if (loggedUser.getRole() == RoleName.ROLE_ADMIN) {
                 userToDelete.setSoftDelete(Boolean.TRUE);
                 userRepository.save(userToDelete);
+                userCache.evict(userToDelete.getEmail());
                 return ResponseEntity.status(HttpStatus.ACCEPTED).body(userToDelete);
-            } else if (loggedUser.getRole().getName() == RoleName.ROLE_USER && Objects.equals(userToDelete.getId(), loggedUser.getId())) {
-                loggedUser.setSoftDelete(Boolean.TRUE);
-                userRepository.save(loggedUser);
+            } else if (loggedUser.getRole() == RoleName.ROLE_USER && Objects.equals(userToDelete.getId(), loggedUser.getId())) {
+                userToDelete.setSoftDelete(Boolean.TRUE);
+                userRepository.save(userToDelete);
+                userCache.evict(userToDelete.getEmail());
                 return ResponseEntity.status(HttpStatus.ACCEPTED).body(userToDelete);
             } else throw new UserNotAllowed("This action is forbidden for this user");
 
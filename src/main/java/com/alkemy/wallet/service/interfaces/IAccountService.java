@@ -2,6 +2,7 @@ package com.alkemy.wallet.service.interfaces;
 
 import com.alkemy.wallet.dto.*;
 import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.model.enums.Currency;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -19,14 +20,21 @@ public interface IAccountService {
 
     List<Account> getAccountsByUserId(Long userId);
 
+    @Transactional(readOnly = true)
+    List<BasicAccountDto> getBasicAccountsByUserId(Long userId) throws EmptyResultDataAccessException;
+
     @Transactional(readOnly = true)
     Page<AccountDto> findAllAccountsPageable(int page) throws EmptyResultDataAccessException;
 
+    KeysetPageDto<AccountDto> findAccountsAfter(String cursor, boolean includeTotal);
+
     @Transactional(readOnly = true)
     List<AccountDto> getAccountsByUserEmail(String email) throws EmptyResultDataAccessException;
 
     Account getAccountByCurrency(Long user_id, Currency currency);
 
+    Long getAccountIdByCurrency(Long userId, Currency currency);
+
     boolean checkAccountLimit(Account senderAccount, RequestTransactionDto transactionDto);
 
     ResponseEntity<?> updateAccount(Long id, AccountUpdateDto newTransactionLimit);
@@ -37,5 +45,5 @@ public interface IAccountService {
 
     List<BalanceDto> getBalance();
 
-    AccountDto updateBalance(Long id, Double amount);
+    AccountDto updateBalance(Long id, Money amount);
 }
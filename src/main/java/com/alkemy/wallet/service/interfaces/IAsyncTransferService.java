@@ -0,0 +1,13 @@
+package com.alkemy.wallet.service.interfaces;
+
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.dto.TransferRequestStatusDto;
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public interface IAsyncTransferService {
+
+    TransferRequestStatusDto submit(RequestTransactionDto destinedTransactionDto);
+
+    TransferRequestStatusDto getStatus(String requestId);
+}
@@ -0,0 +1,14 @@
+package com.alkemy.wallet.service.interfaces;
+
+import com.alkemy.wallet.dto.BalanceAtDto;
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.time.Instant;
+
+@Hidden
+public interface IBalanceHistoryService {
+
+    BalanceAtDto getBalanceAt(Long accountId, Instant at);
+
+    int takeSnapshots();
+}
@@ -1,5 +1,6 @@
 package com.alkemy.wallet.service.interfaces;
 
+import com.alkemy.wallet.dto.KeysetPageDto;
 import com.alkemy.wallet.dto.RequestUserDto;
 import com.alkemy.wallet.dto.ResponseUserDto;
 import com.alkemy.wallet.exception.ResourceNotFoundException;
@@ -29,6 +30,8 @@ public interface ICustomUserDetailsService {
     @Transactional
     Page<ResponseUserDto> findAllUsersPageable(int page) throws Exception;
 
+    KeysetPageDto<ResponseUserDto> findUsersAfter(String cursor, boolean includeTotal);
+
     ResponseUserDto getUserAuthenticated();
 
     ResponseUserDto getUserLoggedById(Long id);
@@ -0,0 +1,24 @@
+package com.alkemy.wallet.service.interfaces;
+
+import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.util.List;
+
+@Hidden
+public interface IHotAccountService {
+
+    boolean isHot(Long accountId);
+
+    void credit(Account account, Money amount);
+
+    void foldInto(Account account);
+
+    void foldIfShort(Account account, Money amount);
+
+    AccountDto markHot(Long accountId, int shards);
+
+    List<AccountDto> withShardBalances(List<AccountDto> accounts);
+}
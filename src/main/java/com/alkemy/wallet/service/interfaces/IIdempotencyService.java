@@ -0,0 +1,13 @@
+package com.alkemy.wallet.service.interfaces;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+@Hidden
+public interface IIdempotencyService {
+
+    ResponseEntity<?> execute(String idempotencyKey, String operation, Object request,
+                              Supplier<ResponseEntity<?>> action);
+}
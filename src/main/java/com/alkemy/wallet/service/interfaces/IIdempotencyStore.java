@@ -0,0 +1,24 @@
+package com.alkemy.wallet.service.interfaces;
+
+import com.alkemy.wallet.dto.IdempotentResponseDto;
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.util.Optional;
+
+@Hidden
+public interface IIdempotencyStore {
+
+    Optional<IdempotentResponseDto> find(String key);
+
+    /**
+     * Claims the key for a request that is about to run.
+     *
+     * @param requestHash hash of the request body, kept with the stored response
+     * @return false when another request already holds or completed the key
+     */
+    boolean reserve(String key, String requestHash);
+
+    void complete(String key, IdempotentResponseDto response);
+
+    void release(String key);
+}
@@ -0,0 +1,10 @@
+package com.alkemy.wallet.service.interfaces;
+
+import com.alkemy.wallet.dto.LedgerRebuildDto;
+import io.swagger.v3.oas.annotations.Hidden;
+
+@Hidden
+public interface ILedgerService {
+
+    LedgerRebuildDto rebuildBalances();
+}
@@ -0,0 +1,16 @@
+package com.alkemy.wallet.service.interfaces;
+
+import com.alkemy.wallet.model.enums.ExportFormat;
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+@Hidden
+public interface ITransactionExportService {
+
+    void checkHistoryAllowed(Long userId);
+
+    long export(Long userId, ExportFormat format, Instant from, Instant to, OutputStream out) throws IOException;
+}
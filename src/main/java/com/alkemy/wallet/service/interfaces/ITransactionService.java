@@ -1,34 +1,39 @@
 package com.alkemy.wallet.service.interfaces;
 
+import com.alkemy.wallet.dto.BatchTransactionResultDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
 import com.alkemy.wallet.dto.RequestTransactionDto;
 import com.alkemy.wallet.dto.ResponseTransactionDto;
-import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.dto.TransactionFilterDto;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.Transaction;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 
-import javax.validation.Valid;
-import java.util.HashSet;
 import java.util.List;
 
 @Hidden
 public interface ITransactionService {
-    HashSet<ResponseTransactionDto> getByUserId(@Valid List<Account> accounts);
+    List<ResponseTransactionDto> getByUserId(Long userId, TransactionFilterDto filter, int size);
 
     ResponseTransactionDto createTransactions(Transaction transactionIncome, Transaction transactionPayment);
 
     ResponseEntity<Object> makeTransaction(RequestTransactionDto destinedTransactionDto);
 
+    List<BatchTransactionResultDto> makeTransactions(List<RequestTransactionDto> transactionDtos);
+
     Page<ResponseTransactionDto> findAllTransactionsByUserIdPageable(Long id, int page);
 
+    KeysetPageDto<ResponseTransactionDto> findTransactionsByUserId(Long userId, String cursor, int size);
+
     ResponseEntity<?> getTransaction(Long id);
 
     ResponseEntity<?>  patchTransaction(Long id, String description);
 
-    boolean checkBalance(Double balance, Double amount);
+    boolean checkBalance(Money balance, Money amount);
 
-    boolean checkTransactionAmount(Double amount);
+    boolean checkTransactionAmount(Money amount);
 
     ResponseEntity<?> createPayment(RequestTransactionDto transctionDto);
 
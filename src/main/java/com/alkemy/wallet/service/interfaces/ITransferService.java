@@ -0,0 +1,21 @@
+package com.alkemy.wallet.service.interfaces;
+
+import com.alkemy.wallet.dto.BatchTransactionResultDto;
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.dto.TransferDto;
+import com.alkemy.wallet.model.Transaction;
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.util.List;
+
+@Hidden
+public interface ITransferService {
+
+    Transaction transfer(Long senderAccountId, Long destinedAccountId, RequestTransactionDto transactionDto);
+
+    List<BatchTransactionResultDto> transferAll(List<TransferDto> transfers);
+
+    Transaction deposit(Long accountId, RequestTransactionDto transactionDto);
+
+    Transaction payment(Long accountId, RequestTransactionDto transactionDto);
+}
@@ -0,0 +1,48 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.model.enums.Currency;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded map from (user id, currency) to the id of that user's account.
+ * A user has at most one account per currency and accounts never change owner,
+ * so entries stay valid; only hits are cached, and creating an account evicts
+ * its key in case a lookup raced with the insert.
+ */
+@Hidden
+@Component
+public class AccountIdCache {
+
+    private final Cache<Key, Long> accountIds;
+
+    public AccountIdCache(@Value("${wallet.account-cache.max-size:100000}") long maxSize) {
+        this.accountIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<Long> get(Long userId, Currency currency, Supplier<Optional<Long>> loader) {
+        Key key = new Key(userId, currency);
+        Long accountId = accountIds.getIfPresent(key);
+        if (accountId != null) {
+            return Optional.of(accountId);
+        }
+        Optional<Long> loaded = loader.get();
+        loaded.ifPresent(id -> accountIds.put(key, id));
+        return loaded;
+    }
+
+    public void invalidate(Long userId, Currency currency) {
+        accountIds.invalidate(new Key(userId, currency));
+    }
+
+    private record Key(Long userId, Currency currency) {
+    }
+}
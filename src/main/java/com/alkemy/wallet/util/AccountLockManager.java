@@ -0,0 +1,92 @@
+package com.alkemy.wallet.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-JVM lock table keyed by account id.
+ * Work on the same account is serialized here, before a pooled connection is
+ * taken, so hot accounts queue on a cheap lock instead of on a database row.
+ * Accounts that land on different stripes still run in parallel.
+ */
+@Hidden
+@Component
+public class AccountLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final Counter[] contention;
+    private final Timer waitTimer;
+
+    public AccountLockManager(@Value("${wallet.account-lock.stripes:64}") int stripeCount,
+                              MeterRegistry meterRegistry) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("wallet.account-lock.stripes must be greater than 0");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        this.contention = new Counter[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+            contention[i] = Counter.builder("wallet.account.lock.contention")
+                    .description("Times a request found the account stripe already taken")
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        this.waitTimer = Timer.builder("wallet.account.lock.wait")
+                .description("Time spent waiting for account stripes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the action holding the stripes of every given account.
+     * Stripes are always taken in ascending index order, so two callers locking
+     * the same accounts in a different order cannot deadlock.
+     */
+    public <T> T withLocks(Supplier<T> action, Long... accountIds) {
+        int[] indexes = stripesOf(accountIds);
+        long start = System.nanoTime();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                lock(index);
+                locked++;
+            }
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    public int stripeOf(Long accountId) {
+        int hash = accountId.hashCode();
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, stripes.length);
+    }
+
+    private int[] stripesOf(Long... accountIds) {
+        return Arrays.stream(accountIds)
+                .mapToInt(this::stripeOf)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private void lock(int index) {
+        ReentrantLock stripe = stripes[index];
+        if (!stripe.tryLock()) {
+            contention[index].increment();
+            stripe.lock();
+        }
+    }
+}
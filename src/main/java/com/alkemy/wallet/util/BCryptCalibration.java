@@ -0,0 +1,72 @@
+package com.alkemy.wallet.util;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Once the application is up, times one BCrypt hash at each cost between
+ * {@code security.bcrypt.calibration.min-strength} and {@code max-strength} and logs
+ * the results next to the configured cost, to help pick the highest cost the
+ * hardware can afford. Each cost takes twice as long as the previous one, so it
+ * stops after the first cost slower than {@code max-latency}.
+ */
+@Hidden
+@Component
+@ConditionalOnProperty(name = "security.bcrypt.calibration.enabled", havingValue = "true")
+public class BCryptCalibration {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibration.class);
+
+    private static final String SAMPLE = "calibration-password";
+
+    private final int strength;
+    private final int minStrength;
+    private final int maxStrength;
+    private final Duration maxLatency;
+
+    public BCryptCalibration(@Value("${security.bcrypt.strength:10}") int strength,
+                             @Value("${security.bcrypt.calibration.min-strength:8}") int minStrength,
+                             @Value("${security.bcrypt.calibration.max-strength:14}") int maxStrength,
+                             @Value("${security.bcrypt.calibration.max-latency:1s}") Duration maxLatency) {
+        this.strength = strength;
+        this.minStrength = minStrength;
+        this.maxStrength = maxStrength;
+        this.maxLatency = maxLatency;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        measure().forEach((cost, latency) -> log.info("BCrypt cost {}: {} ms per hash{}", cost, latency.toMillis(),
+                cost == strength ? " (configured)" : ""));
+    }
+
+    /**
+     * Hash latency by cost, in increasing cost order.
+     */
+    public Map<Integer, Duration> measure() {
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE);
+        Map<Integer, Duration> latencies = new LinkedHashMap<>();
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE);
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            latencies.put(cost, latency);
+            if (latency.compareTo(maxLatency) > 0) {
+                break;
+            }
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,72 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.dto.BalanceDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of each user's {@code /accounts/balance} answer, keyed by the
+ * user's email (the principal name), so a hit needs no query at all. Every write
+ * that moves a balance or a fixed term deposit evicts the owners it touched; inside
+ * a database transaction the eviction waits for the commit, so a concurrent read
+ * cannot put the pre-commit balances back. Hits, misses and evictions are
+ * published as the {@code balances} cache metrics.
+ */
+@Hidden
+@Component
+public class BalanceCache {
+
+    private final Cache<String, List<BalanceDto>> balances;
+
+    public BalanceCache(@Value("${wallet.balance-cache.max-size:10000}") long maxSize,
+                        @Value("${wallet.balance-cache.ttl:5m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.balances = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, balances, "balances");
+    }
+
+    public List<BalanceDto> get(String email, Supplier<List<BalanceDto>> loader) {
+        return balances.get(email, key -> List.copyOf(loader.get()));
+    }
+
+    public void evict(String email) {
+        evictAll(List.of(email));
+    }
+
+    public void evictAll(Collection<String> emails) {
+        afterCommit(() -> balances.invalidateAll(emails));
+    }
+
+    public void clear() {
+        afterCommit(balances::invalidateAll);
+    }
+
+    static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
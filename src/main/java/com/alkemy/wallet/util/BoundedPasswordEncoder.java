@@ -0,0 +1,112 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.context.MessageSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the hashing and checking of passwords on a fixed pool of {@code bcrypt-*}
+ * threads, one per core by default, so a burst of logins and sign ups costs at most
+ * that many cores and leaves the rest to transfers and balance reads. Callers wait
+ * for their turn in a bounded queue; when it is full they are refused right away
+ * with {@link PasswordHashingBusyException} instead of piling up on request threads.
+ * Refusals are counted in {@code wallet.password.rejected}.
+ */
+@Hidden
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final MessageSource messageSource;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate,
+                                  int threads,
+                                  int queueCapacity,
+                                  Duration retryAfter,
+                                  MessageSource messageSource,
+                                  MeterRegistry meterRegistry) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("security.bcrypt threads and queue-capacity must be greater than 0");
+        }
+        this.delegate = delegate;
+        this.messageSource = messageSource;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "bcrypt-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.rejected = Counter.builder("wallet.password.rejected")
+                .description("Password hashes and checks refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("wallet.password.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Password hashes and checks waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T call(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(messageSource.getMessage("password.hashing.busy.exception",
+                    new Object[]{retryAfterSeconds}, Locale.ENGLISH), retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,95 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.exception.UserNotLoggedException;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.repository.IUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.context.MessageSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The authenticated user of the current request, loaded from the database at most
+ * once per request however many services ask for it. The id comes from the token
+ * claims when possible and needs no query at all.
+ * <p>
+ * The loaded user is kept as a request attribute rather than in a request scoped
+ * bean, so services reached outside a web request (transfer workers, scheduled
+ * jobs, tests) can still use it; there every call goes to the database. Lookups
+ * are counted in {@code wallet.current_user.lookups}, tagged {@code loaded} when
+ * they hit the database and {@code saved} when they did not.
+ */
+@Hidden
+@Component
+public class CurrentUser {
+
+    private static final String ATTRIBUTE = CurrentUser.class.getName();
+
+    private final IUserRepository userRepository;
+    private final MessageSource messageSource;
+    private final Counter loaded;
+    private final Counter saved;
+
+    public CurrentUser(IUserRepository userRepository, MessageSource messageSource, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.messageSource = messageSource;
+        this.loaded = lookups("loaded", meterRegistry);
+        this.saved = lookups("saved", meterRegistry);
+    }
+
+    private static Counter lookups(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("wallet.current_user.lookups")
+                .description("Lookups of the authenticated user, by whether they reached the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public String getEmail() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? null : auth.getName();
+    }
+
+    /**
+     * @throws UserNotLoggedException when nobody with the authenticated email exists
+     */
+    public Long getId() {
+        Optional<UserPrincipal> principal = UserPrincipal.current();
+        if (principal.isPresent()) {
+            saved.increment();
+            return principal.get().getId();
+        }
+        User user = get();
+        if (user == null) {
+            throw new UserNotLoggedException(messageSource.getMessage("user.notlogged.exception", null, Locale.ENGLISH));
+        }
+        return user.getId();
+    }
+
+    /**
+     * The user entity, or {@code null} when nobody with the authenticated email exists.
+     */
+    public User get() {
+        String email = getEmail();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User user
+                && user.getEmail().equals(email)) {
+            saved.increment();
+            return user;
+        }
+        User user = userRepository.findByEmail(email);
+        loaded.increment();
+        if (attributes != null && user != null) {
+            attributes.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
@@ -1,33 +1,85 @@
 package com.alkemy.wallet.util;
 
+import com.alkemy.wallet.listing.RoleName;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.swagger.v3.oas.annotations.Hidden;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.spec.SecretKeySpec;
 import javax.xml.bind.DatatypeConverter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 
-
+/**
+ * Emite y valida los JWT. La clave y el parser se arman una sola vez; los claims de
+ * cada token ya verificado se guardan, por el SHA-256 del token, hasta su expiracion
+ * (como mucho {@code security.jwt.cache-ttl}), asi los requests repetidos de un
+ * mismo cliente no vuelven a verificar la firma. Con {@code security.jwt.cache-size=0}
+ * se verifica siempre.
+ */
 @Hidden
 @Component
 public class JwtUtil {
-    private final Logger log = LoggerFactory
-            .getLogger(JwtUtil.class);
-    @Value("${security.jwt.secret}")
-    private String key;
-    @Value("${security.jwt.issuer}")
-    private String issuer;
-    @Value("${security.jwt.ttlMillis}")
-    private long ttlMillis;
+
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+
+    private static final SignatureAlgorithm SIGNATURE_ALGORITHM = SignatureAlgorithm.HS256;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final String issuer;
+    private final long ttlMillis;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Cache<ByteBuffer, Claims> verified;
+
+    public JwtUtil(@Value("${security.jwt.secret}") String key,
+                   @Value("${security.jwt.issuer}") String issuer,
+                   @Value("${security.jwt.ttlMillis}") long ttlMillis,
+                   @Value("${security.jwt.cache-size:10000}") long cacheSize,
+                   @Value("${security.jwt.cache-ttl:10m}") Duration cacheTtl,
+                   MeterRegistry meterRegistry) {
+        this.issuer = issuer;
+        this.ttlMillis = ttlMillis;
+        byte[] apiKeySecretBytes = DatatypeConverter.parseBase64Binary(key);
+        this.signingKey = new SecretKeySpec(apiKeySecretBytes, SIGNATURE_ALGORITHM.getJcaName());
+        this.parser = Jwts.parser().setSigningKey(signingKey);
+        if (cacheSize > 0) {
+            this.verified = Caffeine.newBuilder()
+                    .maximumSize(cacheSize)
+                    .expireAfter(new UntilExpiration(cacheTtl))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt-claims");
+        } else {
+            this.verified = null;
+        }
+    }
 
     /**
      * Crear un nuevo token
@@ -38,27 +90,41 @@ public class JwtUtil {
 
     public String create(Authentication authentication) {
 
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return create(principal);
+        }
         return create(authentication.getName());
 
     }
 
+    /**
+     * Crear un token con el id y el rol del usuario en los claims, para autenticar
+     * los requests sin consultar la base
+     *
+     * @param principal
+     * @return
+     */
+    public String create(UserPrincipal principal) {
+        return builder(principal.getEmail())
+                .claim(USER_ID_CLAIM, principal.getId())
+                .claim(ROLE_CLAIM, principal.getRole().name())
+                .compact();
+    }
+
     public String create(String username) {
-        // The JWT signature algorithm used to sign the token
-        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.HS256;
+        return builder(username).compact();
+    }
 
+    private JwtBuilder builder(String username) {
         long nowMillis = System.currentTimeMillis();
         Date now = new Date(nowMillis);
 
-        //  sign JWT with our ApiKey secret
-        byte[] apiKeySecretBytes = DatatypeConverter.parseBase64Binary(key);
-        Key signingKey = new SecretKeySpec(apiKeySecretBytes, signatureAlgorithm.getJcaName());
-
-        //  set the JWT Claims
+        //  set the JWT Claims, signed with our ApiKey secret
         JwtBuilder builder = Jwts.builder()
                 .setIssuedAt(now)
                 .setSubject(username)
                 .setIssuer(issuer)
-                .signWith(signatureAlgorithm, signingKey);
+                .signWith(SIGNATURE_ALGORITHM, signingKey);
 
         if (ttlMillis >= 0) {
             long expMillis = nowMillis + ttlMillis;
@@ -66,8 +132,7 @@ public class JwtUtil {
             builder.setExpiration(exp);
         }
 
-        // Builds the JWT and serializes it to a compact, URL-safe string
-        return builder.compact();
+        return builder;
     }
 
     /**
@@ -77,12 +142,29 @@ public class JwtUtil {
      * @return
      */
     public String getValue(String jwt) {
-        // This line will throw an exception if it is not a signed JWS (as
-        // expected)
-        Claims claims = Jwts.parser().setSigningKey(DatatypeConverter.parseBase64Binary(key))
-                .parseClaimsJws(jwt).getBody();
+        return verify(jwt).getSubject();
+    }
+
+    /**
+     * Valida el jwt y arma el principal con los claims de id y rol
+     *
+     * @param jwt
+     * @return
+     * @throws JwtException si la firma no es valida, expiro o le faltan los claims
+     */
+    public UserPrincipal getPrincipal(String jwt) {
+        Claims claims = verify(jwt);
 
-        return claims.getSubject();
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null || claims.getSubject() == null) {
+            throw new MalformedJwtException("Token without user claims");
+        }
+        try {
+            return new UserPrincipal(userId.longValue(), claims.getSubject(), RoleName.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Unknown role " + role);
+        }
     }
 
     /**
@@ -92,11 +174,63 @@ public class JwtUtil {
      * @return
      */
     public String getKey(String jwt) {
+        return verify(jwt).getId();
+    }
 
-        Claims claims = Jwts.parser().setSigningKey(DatatypeConverter.parseBase64Binary(key))
-                .parseClaimsJws(jwt).getBody();
+    /**
+     * Claims de un token valido, desde la cache si ya fue verificado; los tokens
+     * rechazados no se guardan.
+     *
+     * @throws JwtException si la firma no es valida o el token expiro
+     */
+    public Claims verify(String jwt) {
+        if (verified == null) {
+            return parse(jwt);
+        }
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(jwt.getBytes(StandardCharsets.UTF_8)));
+        Claims claims = verified.getIfPresent(digest);
+        if (claims == null) {
+            claims = parse(jwt);
+            verified.put(digest, claims);
+        }
+        return claims;
+    }
 
-        return claims.getId();
+    private Claims parse(String jwt) {
+        // This line will throw an exception if it is not a signed JWS (as expected);
+        // the claims are shared by every request carrying the token, so they are only read
+        return parser.parseClaimsJws(jwt).getBody();
     }
 
+    /**
+     * Keeps a verified token until it expires, never longer than {@code maxTtl}.
+     */
+    private static final class UntilExpiration implements Expiry<ByteBuffer, Claims> {
+
+        private final long maxTtlNanos;
+
+        private UntilExpiration(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long untilExpiration = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(untilExpiration, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.dto.KeysetPageDto;
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque cursors for seek pagination. A cursor wraps the key of the row a client stopped
+ * at, so the next slice is read with {@code key > lastSeenKey} from an index instead of
+ * skipping an OFFSET that grows with the page number.
+ */
+@Hidden
+public final class KeysetCursor {
+
+    public static final int PAGE_SIZE = 10;
+
+    private static final String PREFIX = "id:";
+
+    private static final String POSITION_PREFIX = "at:";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Long lastSeenId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastSeenId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the last seen id, or 0 for a missing cursor (first slice)
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode(Long)}
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!decoded.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Unknown cursor format");
+        }
+        long lastSeenId = Long.parseLong(decoded.substring(PREFIX.length()));
+        if (lastSeenId < 0) {
+            throw new IllegalArgumentException("Negative cursor");
+        }
+        return lastSeenId;
+    }
+
+    /**
+     * Builds a slice from rows fetched with a limit of {@link #PAGE_SIZE} + 1: the extra
+     * row only tells whether another slice exists and is dropped.
+     */
+    public static <T> KeysetPageDto<T> slice(List<T> rows, Function<T, Long> idOf, Long total) {
+        boolean hasNext = rows.size() > PAGE_SIZE;
+        List<T> content = hasNext ? rows.subList(0, PAGE_SIZE) : rows;
+        String next = hasNext ? encode(idOf.apply(content.get(content.size() - 1))) : null;
+        return KeysetPageDto.<T>builder()
+                .content(content)
+                .next(next)
+                .total(total)
+                .build();
+    }
+
+    public static String encode(Position position) {
+        String raw = POSITION_PREFIX + (position.before() ? "b" : "a") + ":" + position.timestamp()
+                + ":" + position.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the position wrapped by the cursor, or null for a missing cursor (first slice)
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode(Position)}
+     */
+    public static Position decodePosition(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(":");
+        if (parts.length != 4 || !decoded.startsWith(POSITION_PREFIX)
+                || !(parts[1].equals("a") || parts[1].equals("b"))) {
+            throw new IllegalArgumentException("Unknown cursor format");
+        }
+        return new Position(Long.parseLong(parts[2]), Long.parseLong(parts[3]), parts[1].equals("b"));
+    }
+
+    /**
+     * A (timestamp, id) key; {@code before} cursors read the slice preceding the key
+     * instead of the one following it.
+     */
+    public record Position(long timestamp, long id, boolean before) {
+
+        public static Position after(Date date, Long id) {
+            return new Position(date.getTime(), id, false);
+        }
+
+        public static Position before(Date date, Long id) {
+            return new Position(date.getTime(), id, true);
+        }
+
+        public Date date() {
+            return new Date(timestamp);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.alkemy.wallet.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs an action that lost an optimistic version check on {@code Account}.
+ * Each attempt must open its own database transaction, so the action is only
+ * retried when no transaction is active yet; inside an outer transaction the
+ * conflict is left to that transaction's owner. Between attempts the thread
+ * sleeps a random time up to an exponentially growing bound (full jitter), so
+ * requests that collided once do not collide again in lockstep.
+ */
+@Hidden
+@Component
+public class OptimisticRetry {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticRetry(@Value("${wallet.optimistic-retry.max-attempts:3}") int maxAttempts,
+                           @Value("${wallet.optimistic-retry.backoff:10ms}") Duration backoff,
+                           @Value("${wallet.optimistic-retry.max-backoff:200ms}") Duration maxBackoff,
+                           MeterRegistry meterRegistry) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("wallet.optimistic-retry.max-attempts must be greater than 0");
+        }
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts || !backoff(attempt)) {
+                    meterRegistry.counter("wallet.optimistic.giveups", "operation", operation).increment();
+                    throw e;
+                }
+                meterRegistry.counter("wallet.optimistic.retries", "operation", operation).increment();
+            }
+        }
+    }
+
+    private boolean backoff(int attempt) {
+        long bound = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempt - 1, 20));
+        if (bound <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.dto.BatchTransactionResultDto;
+import com.alkemy.wallet.dto.TransferDto;
+import com.alkemy.wallet.exception.TransferPipelineUnavailableException;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single transfers. When {@code wallet.transfer.pipeline.enabled} is on,
+ * transfers are routed by sender account id to one of {@code shards} queues, each drained
+ * by a single writer thread. A writer takes up to {@code max-batch} transfers, waiting at
+ * most {@code linger} for the group to fill, and commits them with one call to
+ * {@link ITransferService#transferAll}, so the whole group shares one database commit.
+ * A caller's future only completes after its group has committed.
+ * <p>
+ * On shutdown no new transfers are accepted and the writers get
+ * {@code shutdown-timeout} to commit what is already queued. Writers are never
+ * interrupted in the middle of a commit; transfers still queued after the timeout
+ * fail with {@link TransferPipelineUnavailableException} without being made.
+ */
+@Hidden
+@Component
+public class TransferPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferPipeline.class);
+
+    private final ITransferService transferService;
+    private final AccountLockManager accountLockManager;
+    private final OptimisticRetry optimisticRetry;
+    private final MessageSource messageSource;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final Duration awaitTimeout;
+    private final Duration shutdownTimeout;
+    private final List<BlockingQueue<PendingTransfer>> queues = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private final DistributionSummary groupSize;
+    private volatile boolean running;
+
+    public TransferPipeline(ITransferService transferService,
+                            AccountLockManager accountLockManager,
+                            OptimisticRetry optimisticRetry,
+                            MessageSource messageSource,
+                            MeterRegistry meterRegistry,
+                            @Value("${wallet.transfer.pipeline.enabled:false}") boolean enabled,
+                            @Value("${wallet.transfer.pipeline.shards:4}") int shards,
+                            @Value("${wallet.transfer.pipeline.max-batch:64}") int maxBatch,
+                            @Value("${wallet.transfer.pipeline.linger:2ms}") Duration linger,
+                            @Value("${wallet.transfer.pipeline.queue-capacity:10000}") int queueCapacity,
+                            @Value("${wallet.transfer.pipeline.await-timeout:30s}") Duration awaitTimeout,
+                            @Value("${wallet.transfer.pipeline.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        if (shards < 1 || maxBatch < 1) {
+            throw new IllegalArgumentException("wallet.transfer.pipeline shards and max-batch must be greater than 0");
+        }
+        this.transferService = transferService;
+        this.accountLockManager = accountLockManager;
+        this.optimisticRetry = optimisticRetry;
+        this.messageSource = messageSource;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.lingerNanos = linger.toNanos();
+        this.awaitTimeout = awaitTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        for (int i = 0; i < shards; i++) {
+            BlockingQueue<PendingTransfer> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            Gauge.builder("wallet.transfer.pipeline.queue.size", queue, BlockingQueue::size)
+                    .description("Transfers waiting for their group commit")
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        this.groupSize = DistributionSummary.builder("wallet.transfer.pipeline.group.size")
+                .description("Transfers committed per database transaction")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < queues.size(); i++) {
+            BlockingQueue<PendingTransfer> queue = queues.get(i);
+            Thread writer = new Thread(() -> drain(queue), "transfer-pipeline-" + i);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            for (Thread writer : writers) {
+                TimeUnit.NANOSECONDS.timedJoin(writer, Math.max(1, deadline - System.nanoTime()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int abandoned = 0;
+        for (BlockingQueue<PendingTransfer> queue : queues) {
+            List<PendingTransfer> leftovers = new ArrayList<>();
+            queue.drainTo(leftovers);
+            leftovers.forEach(this::refuse);
+            abandoned += leftovers.size();
+        }
+        if (abandoned > 0) {
+            log.warn("Transfer pipeline still had {} transfers queued after {}, failed without running",
+                    abandoned, shutdownTimeout);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the transfer on its sender's shard, waiting up to {@code await-timeout}
+     * while that shard is full. Refused once the pipeline is stopping.
+     */
+    public CompletableFuture<BatchTransactionResultDto> submit(TransferDto transfer) {
+        PendingTransfer pending = new PendingTransfer(transfer, new CompletableFuture<>());
+        if (!running) {
+            refuse(pending);
+            return pending.result;
+        }
+        BlockingQueue<PendingTransfer> queue =
+                queues.get(Math.floorMod(transfer.getSenderAccountId().hashCode(), queues.size()));
+        try {
+            if (!queue.offer(pending, awaitTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                refuse(pending);
+            } else if (!running && queue.remove(pending)) {
+                // Stopped while queueing: the writers may already be gone.
+                refuse(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.completeExceptionally(e);
+        }
+        return pending.result;
+    }
+
+    private void refuse(PendingTransfer pending) {
+        pending.result.completeExceptionally(new TransferPipelineUnavailableException(
+                messageSource.getMessage("transfer.pipeline.stopped.exception", null, Locale.ENGLISH)));
+    }
+
+    private void drain(BlockingQueue<PendingTransfer> queue) {
+        List<PendingTransfer> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingTransfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, maxBatch - group.size());
+                long deadline = System.nanoTime() + lingerNanos;
+                while (group.size() < maxBatch) {
+                    PendingTransfer next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                    queue.drainTo(group, maxBatch - group.size());
+                }
+            } catch (InterruptedException e) {
+                // Commit what was already taken; anything left is failed by stop().
+                Thread.currentThread().interrupt();
+                if (!group.isEmpty()) {
+                    commit(group);
+                }
+                return;
+            }
+            commit(group);
+            group.clear();
+        }
+    }
+
+    private void commit(List<PendingTransfer> group) {
+        groupSize.record(group.size());
+        try {
+            List<BatchTransactionResultDto> results = transferAll(group);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).result.completeExceptionally(e);
+                return;
+            }
+            // One transfer broke the whole group: commit them one by one so only it fails.
+            for (PendingTransfer pending : group) {
+                commit(List.of(pending));
+            }
+        }
+    }
+
+    private List<BatchTransactionResultDto> transferAll(List<PendingTransfer> group) {
+        List<TransferDto> transfers = new ArrayList<>(group.size());
+        List<Long> accountIds = new ArrayList<>(group.size() * 2);
+        for (PendingTransfer pending : group) {
+            transfers.add(pending.transfer);
+            accountIds.add(pending.transfer.getSenderAccountId());
+            accountIds.add(pending.transfer.getTransaction().getAccount().getId());
+        }
+        return optimisticRetry.execute("pipeline", () -> accountLockManager.withLocks(
+                () -> transferService.transferAll(transfers), accountIds.toArray(new Long[0])));
+    }
+
+    private static class PendingTransfer {
+        private final TransferDto transfer;
+        private final CompletableFuture<BatchTransactionResultDto> result;
+
+        private PendingTransfer(TransferDto transfer, CompletableFuture<BatchTransactionResultDto> result) {
+            this.transfer = transfer;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.alkemy.wallet.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-limited cache of the users looked up by email when authenticating, in
+ * front of {@code CUserDetailsService}. Each caller gets its own copy of the cached
+ * principal, since a successful login erases the password of the instance it was
+ * handed. Changing a password or soft deleting a user evicts it once the change is
+ * committed. Published as the {@code users} cache metrics.
+ */
+@Hidden
+@Component
+public class UserCache {
+
+    private final Cache<String, UserPrincipal> users;
+
+    public UserCache(@Value("${wallet.user-cache.max-size:10000}") long maxSize,
+                     @Value("${wallet.user-cache.ttl:5m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    public UserPrincipal get(String email, Function<String, UserPrincipal> loader) {
+        return users.get(email, loader).copy();
+    }
+
+    public void evict(String email) {
+        BalanceCache.afterCommit(() -> users.invalidate(email));
+    }
+}
@@ -0,0 +1,132 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.listing.RoleName;
+import com.alkemy.wallet.model.User;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The authenticated caller: id, email and role. Built from the database on login and
+ * from the token claims on every other request, so services can tell who is calling
+ * without loading the user. A soft deleted user is built disabled, so neither a login
+ * nor an outstanding token is accepted for it.
+ */
+@Hidden
+@Getter
+@ToString(exclude = "password")
+@EqualsAndHashCode(of = "id")
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+
+    /**
+     * One immutable authority list per role, shared by every principal.
+     */
+    private static final Map<RoleName, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(RoleName.class);
+
+    static {
+        for (RoleName role : RoleName.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority(role.name())));
+        }
+    }
+
+    private final Long id;
+
+    private final String email;
+
+    private final RoleName role;
+
+    private final boolean enabled;
+
+    private String password;
+
+    public UserPrincipal(Long id, String email, RoleName role) {
+        this(id, email, role, true, null);
+    }
+
+    private UserPrincipal(Long id, String email, RoleName role, boolean enabled, String password) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.enabled = enabled;
+        this.password = password;
+    }
+
+    /**
+     * Principal used to check a login; the password is erased once it has been verified.
+     */
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getRole().getName(), !user.isSoftDelete(),
+                user.getPassword());
+    }
+
+    /**
+     * The principal of the current request, empty when the caller is anonymous or was
+     * authenticated some other way (e.g. tests setting a bare username).
+     */
+    public static Optional<UserPrincipal> current() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Same user, credentials included, as a new instance.
+     */
+    public UserPrincipal copy() {
+        return new UserPrincipal(id, email, role, enabled, password);
+    }
+
+    public boolean isAdmin() {
+        return role == RoleName.ROLE_ADMIN;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES.get(role);
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.alkemy.wallet.benchmark;
+
+import com.alkemy.wallet.listing.RoleName;
+import com.alkemy.wallet.util.JwtUtil;
+import com.alkemy.wallet.util.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of validating the bearer token of a request, re-verifying the HMAC every
+ * time ({@code cacheSize = 0}) and through the verified-token cache, with a pool of
+ * clients each sending its token repeatedly:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtVerifyBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtVerifyBenchmark {
+
+    private static final int CLIENTS = 1024;
+
+    @Param({"0", "10000"})
+    public long cacheSize;
+
+    private JwtUtil jwtUtil;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("sfgsdfg3546345dfgghnfu4678", "Main", 604800000L, cacheSize,
+                Duration.ofMinutes(10), new SimpleMeterRegistry());
+        tokens = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            tokens[i] = jwtUtil.create(new UserPrincipal((long) i, "client" + i + "@test.com", RoleName.ROLE_USER));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public UserPrincipal verify(Cursor cursor) {
+        String token = tokens[cursor.next++ & (CLIENTS - 1)];
+        return jwtUtil.getPrincipal(token);
+    }
+}
@@ -0,0 +1,78 @@
+package com.alkemy.wallet.benchmark;
+
+import com.alkemy.wallet.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance and limit checks of a transfer, as they were with boxed {@code Double}
+ * fields and as they are with {@link Money}. Run with {@code -prof gc} to compare
+ * allocation as well as time:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MoneyCheckBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyCheckBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final Double[] doubleBalances = new Double[SIZE];
+    private final Double[] doubleLimits = new Double[SIZE];
+    private final Double[] doubleAmounts = new Double[SIZE];
+    private final Money[] moneyBalances = new Money[SIZE];
+    private final Money[] moneyLimits = new Money[SIZE];
+    private final Money[] moneyAmounts = new Money[SIZE];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            long balance = random.nextInt(10_000_000);
+            long limit = random.nextInt(30_000_000);
+            long amount = 1 + random.nextInt(5_000_000);
+            doubleBalances[i] = balance / 100.0;
+            doubleLimits[i] = limit / 100.0;
+            doubleAmounts[i] = amount / 100.0;
+            moneyBalances[i] = Money.ofCents(balance);
+            moneyLimits[i] = Money.ofCents(limit);
+            moneyAmounts[i] = Money.ofCents(amount);
+        }
+    }
+
+    @Benchmark
+    public void boxedDouble(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            Double amount = doubleAmounts[i];
+            boolean allowed = amount > 0 && amount < doubleLimits[i] && !(doubleBalances[i] < amount);
+            if (allowed) {
+                Double balance = doubleBalances[i] - amount;
+                blackhole.consume(balance);
+            }
+            blackhole.consume(allowed);
+        }
+    }
+
+    @Benchmark
+    public void money(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            Money amount = moneyAmounts[i];
+            boolean allowed = amount.isPositive() && amount.isLessThan(moneyLimits[i])
+                    && !moneyBalances[i].isLessThan(amount);
+            if (allowed) {
+                Money balance = moneyBalances[i].minus(amount);
+                blackhole.consume(balance);
+            }
+            blackhole.consume(allowed);
+        }
+    }
+}
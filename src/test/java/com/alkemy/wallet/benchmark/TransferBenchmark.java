@@ -0,0 +1,120 @@
+package com.alkemy.wallet.benchmark;
+
+import com.alkemy.wallet.WalletApplication;
+import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.listing.RoleName;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.repository.IRoleRepository;
+import com.alkemy.wallet.repository.IUserRepository;
+import com.alkemy.wallet.service.interfaces.ITransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent transfers through {@link ITransactionService#makeTransaction} against the
+ * in-memory H2 database of the test profile. Reports transfers per second and, on tear
+ * down, the lock wait recorded by the {@code wallet.transfer.lock.wait} timer.
+ * <p>
+ * With {@code accounts = 2} every thread fights for the same pair of rows; with 64 the
+ * transfers are mostly uncontended. {@code pipeline = true} routes the transfers through
+ * the group-commit pipeline instead of committing each one on its own. Run it against the previous commit to get the
+ * "before" throughput:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main TransferBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class TransferBenchmark {
+
+    @Param({"2", "64"})
+    private int accounts;
+
+    @Param({"false", "true"})
+    private boolean pipeline;
+
+    private ConfigurableApplicationContext context;
+    private ITransactionService transactionService;
+    private String[] emails;
+    private Long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WalletApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN",
+                        "wallet.transfer.pipeline.enabled=" + pipeline)
+                .run();
+        transactionService = context.getBean(ITransactionService.class);
+        IUserRepository userRepository = context.getBean(IUserRepository.class);
+        IAccountRepository accountRepository = context.getBean(IAccountRepository.class);
+        IRoleRepository roleRepository = context.getBean(IRoleRepository.class);
+
+        emails = new String[accounts];
+        accountIds = new Long[accounts];
+        for (int i = 0; i < accounts; i++) {
+            User user = userRepository.save(User.builder()
+                    .firstName("bench")
+                    .lastName("bench" + i)
+                    .email("bench" + i + "@bench.com")
+                    .password("bench")
+                    .role(roleRepository.findByName(RoleName.ROLE_USER))
+                    .build());
+            Account account = new Account(Currency.ars);
+            account.setUser(user);
+            account.setBalance(Money.of(1_000_000_000D));
+            emails[i] = user.getEmail();
+            accountIds[i] = accountRepository.save(account).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Timer lockWait = context.getBean(MeterRegistry.class).get("wallet.transfer.lock.wait").timer();
+        System.out.printf("%nlock wait: count=%d mean=%.3fms max=%.3fms%n",
+                lockWait.count(),
+                lockWait.mean(TimeUnit.MILLISECONDS),
+                lockWait.max(TimeUnit.MILLISECONDS));
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Sender {
+        private final Random random = new Random();
+    }
+
+    @Benchmark
+    public Object transfer(Sender sender) {
+        int from = sender.random.nextInt(accounts);
+        int to = (from + 1 + sender.random.nextInt(accounts - 1)) % accounts;
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(emails[from], null, Collections.emptyList()));
+
+        RequestTransactionDto transactionDto = new RequestTransactionDto();
+        transactionDto.setAmount(Money.of(1D));
+        transactionDto.setDescription("benchmark");
+        transactionDto.setAccount(AccountDto.builder().id(accountIds[to]).currency(Currency.ars).build());
+        return transactionService.makeTransaction(transactionDto);
+    }
+}
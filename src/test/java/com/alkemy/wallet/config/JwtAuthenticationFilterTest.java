@@ -0,0 +1,112 @@
+package com.alkemy.wallet.config;
+
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.listing.RoleName;
+import com.alkemy.wallet.model.Role;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.util.JwtUtil;
+import com.alkemy.wallet.util.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private final Map<String, UserPrincipal> users = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil("sfgsdfg3546345dfgghnfu4678", "Main", 60_000L, 100, Duration.ofMinutes(10),
+                new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwtUtil, email -> {
+            UserPrincipal user = users.get(email);
+            if (user == null) {
+                throw new ResourceNotFoundException("not found " + email);
+            }
+            return user;
+        });
+        users.put("claims@test.com", new UserPrincipal(42L, "claims@test.com", RoleName.ROLE_ADMIN));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_authenticatesFromClaims_withoutSession() throws Exception {
+        String token = jwtUtil.create(new UserPrincipal(42L, "claims@test.com", RoleName.ROLE_ADMIN));
+        MockHttpServletRequest request = request("Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertEquals(42L, principal.getId());
+        assertEquals("claims@test.com", authentication.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), List.copyOf(authentication.getAuthorities()));
+        assertEquals(principal, UserPrincipal.current().orElseThrow());
+        assertNull(request.getSession(false));
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void tamperedOrClaimlessToken_leavesTheRequestAnonymous() throws Exception {
+        String token = jwtUtil.create(new UserPrincipal(42L, "claims@test.com", RoleName.ROLE_USER));
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "x." + parts[2];
+
+        for (String header : List.of("Bearer " + tampered, "Bearer " + jwtUtil.create("subject.only@test.com"),
+                "Bearer not-a-token")) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request(header), new MockHttpServletResponse(), chain);
+
+            assertNull(SecurityContextHolder.getContext().getAuthentication(), header);
+            assertNotNull(chain.getRequest());
+        }
+    }
+
+    @Test
+    void tokenOfADeletedOrChangedUser_leavesTheRequestAnonymous() throws Exception {
+        String token = jwtUtil.create(new UserPrincipal(42L, "claims@test.com", RoleName.ROLE_ADMIN));
+
+        users.put("claims@test.com", new UserPrincipal(42L, "claims@test.com", RoleName.ROLE_USER));
+        filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        users.put("claims@test.com", UserPrincipal.of(User.builder().id(42L).email("claims@test.com")
+                .role(Role.builder().name(RoleName.ROLE_ADMIN).build()).softDelete(true).build()));
+        filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        users.remove("claims@test.com");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("Bearer " + token), new MockHttpServletResponse(), chain);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/balance");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        return request;
+    }
+}
@@ -1,6 +1,8 @@
 package com.alkemy.wallet.controller;
 
+import com.alkemy.wallet.dto.AccountDto;
 import com.alkemy.wallet.dto.AccountUpdateDto;
+import com.alkemy.wallet.dto.FixedTermDto;
 import com.alkemy.wallet.exception.ResourceNotFoundException;
 import com.alkemy.wallet.exception.UserNotLoggedException;
 import com.alkemy.wallet.listing.RoleName;
@@ -9,6 +11,7 @@ import com.alkemy.wallet.model.FixedTermDeposit;
 import com.alkemy.wallet.model.Role;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.IFixedTermRepository;
 import com.alkemy.wallet.repository.IUserRepository;
@@ -98,8 +101,8 @@ class AccountControllerTest {
 
         accountArs = Account.builder()
                 .id(1L)
-                .balance(100000D)
-                .transactionLimit(300000D)
+                .balance(Money.of(100000D))
+                .transactionLimit(Money.of(300000D))
                 .creationDate(new Date())
                 .user(user)
                 .currency(Currency.ars)
@@ -107,8 +110,8 @@ class AccountControllerTest {
 
         accountUsd = Account.builder()
                 .id(2L)
-                .balance(1000D)
-                .transactionLimit(1000D)
+                .balance(Money.of(1000D))
+                .transactionLimit(Money.of(1000D))
                 .creationDate(new Date())
                 .user(user)
                 .currency(Currency.usd)
@@ -117,28 +120,28 @@ class AccountControllerTest {
         fixedTermArs = FixedTermDeposit.builder()
                 .id(1L)
                 .account(accountArs)
-                .amount(20000D)
+                .amount(Money.of(20000D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(35))
-                .interest(0.005)
+                .interest(Money.of(3500D))
                 .build();
 
         fixedTermUsdOne = FixedTermDeposit.builder()
                 .id(2L)
                 .account(accountUsd)
-                .amount(500D)
+                .amount(Money.of(500D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(35))
-                .interest(0.005)
+                .interest(Money.of(87.5))
                 .build();
 
         fixedTermUsdTwo = FixedTermDeposit.builder()
                 .id(3L)
                 .account(accountUsd)
-                .amount(500D)
+                .amount(Money.of(500D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(35))
-                .interest(0.005)
+                .interest(Money.of(87.5))
                 .build();
 
         token = jwtUtil.create(user.getEmail());
@@ -150,9 +153,9 @@ class AccountControllerTest {
     void when_getBalance_successfully() throws Exception {
 
         when(userRepository.findByEmail(anyString())).thenReturn(user);
-        when(accountRepository.findAllByUser_Email(anyString())).thenReturn(List.of(accountArs, accountUsd));
-        when(fixedTermRepository.findAllByAccount_Id(accountArs.getId())).thenReturn(List.of(fixedTermArs));
-        when(fixedTermRepository.findAllByAccount_Id(accountUsd.getId())).thenReturn(List.of(fixedTermUsdOne, fixedTermUsdTwo));
+        when(accountRepository.findDtosByUserEmail(anyString())).thenReturn(List.of(toDto(accountArs), toDto(accountUsd)));
+        when(fixedTermRepository.findDtosByAccountIdIn(anyCollection()))
+                .thenReturn(List.of(toDto(fixedTermArs), toDto(fixedTermUsdOne), toDto(fixedTermUsdTwo)));
 
 
         mockMvc.perform(MockMvcRequestBuilders.get("/accounts/balance")
@@ -188,9 +191,9 @@ class AccountControllerTest {
         token = jwtUtil.create("fake@user.com");
 
         when(userRepository.findByEmail(anyString())).thenReturn(null);
-        when(accountRepository.findAllByUser_Email(anyString())).thenReturn(List.of(accountArs, accountUsd));
-        when(fixedTermRepository.findAllByAccount_Id(accountArs.getId())).thenReturn(List.of(fixedTermArs));
-        when(fixedTermRepository.findAllByAccount_Id(accountUsd.getId())).thenReturn(List.of(fixedTermUsdOne, fixedTermUsdTwo));
+        when(accountRepository.findDtosByUserEmail(anyString())).thenReturn(List.of(toDto(accountArs), toDto(accountUsd)));
+        when(fixedTermRepository.findDtosByAccountIdIn(anyCollection()))
+                .thenReturn(List.of(toDto(fixedTermArs), toDto(fixedTermUsdOne), toDto(fixedTermUsdTwo)));
 
 
         mockMvc.perform(MockMvcRequestBuilders.get("/accounts/balance")
@@ -210,16 +213,15 @@ class AccountControllerTest {
 
         Account updatedAccountArs = Account.builder()
                 .id(1L)
-                .balance(100000D)
-                .transactionLimit(400000D)
+                .balance(Money.of(100000D))
+                .transactionLimit(Money.of(400000D))
                 .creationDate(new Date())
                 .user(user)
                 .currency(Currency.ars)
                 .build();
-        AccountUpdateDto newTransactionLimit = new AccountUpdateDto(400000D);
+        AccountUpdateDto newTransactionLimit = new AccountUpdateDto(Money.of(400000D));
 
         when(userRepository.findByEmail(anyString())).thenReturn(user);
-        when(accountRepository.findAllByUser_Email(anyString())).thenReturn(List.of(accountArs, accountUsd));
         when(accountRepository.findById(anyLong())).thenReturn(Optional.ofNullable(accountArs));
         when(accountRepository.save(any(Account.class))).thenReturn(updatedAccountArs);
 
@@ -242,13 +244,14 @@ class AccountControllerTest {
     @WithMockUser
     void updateAccountController_fails_whenAccountDoesNotBelongToUserLogged() throws Exception {
 
-        AccountUpdateDto newTransactionLimit = new AccountUpdateDto(400000D);
-
-        when(userRepository.findByEmail(anyString())).thenReturn(user);
-        when(accountRepository.findAllByUser_Email(anyString())).thenReturn(List.of(accountArs, accountUsd));
-        when(accountRepository.findById(anyLong())).thenReturn(Optional.ofNullable(accountArs));
+        AccountUpdateDto newTransactionLimit = new AccountUpdateDto(Money.of(400000D));
 
         Long anotherId = 3L;
+        User anotherUser = User.builder().id(2L).email("another@test.com").role(role).build();
+        Account anotherAccount = Account.builder().id(anotherId).user(anotherUser).currency(Currency.ars).build();
+
+        when(userRepository.findByEmail(anyString())).thenReturn(user);
+        when(accountRepository.findById(anotherId)).thenReturn(Optional.of(anotherAccount));
 
         mockMvc.perform(MockMvcRequestBuilders.patch("/accounts/{id}", anotherId)
                         .with(csrf())
@@ -260,4 +263,15 @@ class AccountControllerTest {
                 .andExpect(result -> assertEquals(result.getResolvedException().getMessage(),
                         messageSource.getMessage("account.notfound.foruser.exception", new Object[]{anotherId}, Locale.ENGLISH)));
     }
-}
\ No newline at end of file
+
+    private static FixedTermDto toDto(FixedTermDeposit fixedTerm) {
+        return new FixedTermDto(fixedTerm.getId(), fixedTerm.getAmount(), fixedTerm.getAccount().getId(),
+                fixedTerm.getInterest(), fixedTerm.getCreationDate(), fixedTerm.getClosingDate(),
+                fixedTerm.getAccount().getCurrency());
+    }
+
+    private static AccountDto toDto(Account account) {
+        return new AccountDto(account.getId(), account.getCurrency(), account.getTransactionLimit(),
+                account.getBalance(), account.getUser().getId());
+    }
+}
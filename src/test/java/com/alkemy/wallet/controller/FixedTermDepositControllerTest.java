@@ -9,6 +9,7 @@ import com.alkemy.wallet.model.FixedTermDeposit;
 import com.alkemy.wallet.model.Role;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.IFixedTermRepository;
 import com.alkemy.wallet.repository.IUserRepository;
@@ -97,8 +98,8 @@ class FixedTermDepositControllerTest {
 
         account = Account.builder()
                 .id(1L)
-                .balance(10000D)
-                .transactionLimit(300000D)
+                .balance(Money.of(10000D))
+                .transactionLimit(Money.of(300000D))
                 .creationDate(new Date())
                 .user(user)
                 .currency(Currency.ars)
@@ -113,7 +114,7 @@ class FixedTermDepositControllerTest {
 
         FixedTermDto fixedTermDto = FixedTermDto.builder()
                 .accountId(1L)
-                .amount(2000D)
+                .amount(Money.of(2000D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(35))
                 .currency(Currency.ars)
@@ -122,10 +123,10 @@ class FixedTermDepositControllerTest {
         FixedTermDeposit fixedTermDeposit = FixedTermDeposit.builder()
                 .id(1L)
                 .account(account)
-                .amount(2000D)
+                .amount(Money.of(2000D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(35))
-                .interest(0.005)
+                .interest(Money.of(350D))
                 .build();
 
         when(userRepository.findByEmail(anyString())).thenReturn(user);
@@ -144,7 +145,7 @@ class FixedTermDepositControllerTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.amount", is(2000D)))
                 .andExpect(jsonPath("$.accountId", is(1)))
-                .andExpect(jsonPath("$.interest", is(0.005)))
+                .andExpect(jsonPath("$.interest", is(350D)))
                 .andExpect(jsonPath("$.creationDate", is(LocalDate.now()
                         .format(DateTimeFormatter.ofPattern("dd-MM-yyyy")))))
                 .andExpect(jsonPath("$.closingDate", is(LocalDate.now().plusDays(35)
@@ -159,7 +160,7 @@ class FixedTermDepositControllerTest {
 
         FixedTermDto fixedTermDto = FixedTermDto.builder()
                 .accountId(1L)
-                .amount(2000D)
+                .amount(Money.of(2000D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(25))
                 .currency(Currency.ars)
@@ -187,7 +188,7 @@ class FixedTermDepositControllerTest {
 
         FixedTermDto fixedTermDto = FixedTermDto.builder()
                 .accountId(1L)
-                .amount(200000D)
+                .amount(Money.of(200000D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(60))
                 .currency(Currency.ars)
@@ -212,7 +213,7 @@ class FixedTermDepositControllerTest {
     void when_simulateFixedDeposit_successfully() throws Exception {
         FixedTermDto fixedTermDto = FixedTermDto.builder()
                 .accountId(1L)
-                .amount(2000D)
+                .amount(Money.of(2000D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(30))
                 .currency(Currency.ars)
@@ -236,7 +237,7 @@ class FixedTermDepositControllerTest {
     void when_simulateFixedDeposit_withPeriodLessThan30Days() throws Exception {
         FixedTermDto fixedTermDto = FixedTermDto.builder()
                 .accountId(1L)
-                .amount(2000D)
+                .amount(Money.of(2000D))
                 .creationDate(LocalDate.now())
                 .closingDate(LocalDate.now().plusDays(25))
                 .currency(Currency.ars)
@@ -0,0 +1,39 @@
+package com.alkemy.wallet.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void arithmetic_isExact_whereDoublesDrift() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(0.1));
+        }
+
+        assertEquals(Money.of(1), total);
+        assertEquals(Money.ofCents(70), Money.of(1).minus(Money.of(0.3)));
+    }
+
+    @Test
+    void multiply_roundsHalfEvenToTheCent() {
+        Money interest = Money.of(2000).multiply(new BigDecimal("0.005").multiply(BigDecimal.valueOf(35)));
+
+        assertEquals(Money.of(350), interest);
+        assertEquals(Money.ofCents(2), Money.ofCents(5).multiply(new BigDecimal("0.5")));
+    }
+
+    @Test
+    void json_keepsDecimalShape() throws Exception {
+        assertEquals("1500.50", objectMapper.writeValueAsString(Money.of(1500.5)));
+        assertEquals(Money.ofCents(150050), objectMapper.readValue("1500.5", Money.class));
+        assertEquals(Money.ofCents(150050), objectMapper.readValue("\"1500.50\"", Money.class));
+    }
+}
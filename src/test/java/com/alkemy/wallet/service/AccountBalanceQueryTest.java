@@ -0,0 +1,77 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.BalanceDto;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.FixedTermDeposit;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.repository.IFixedTermRepository;
+import com.alkemy.wallet.service.interfaces.IAccountService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.alkemy.wallet.service.WalletTestData.login;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AccountBalanceQueryTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private IFixedTermRepository fixedTermRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getBalance_usesTwoStatements_whateverTheNumberOfAccounts() {
+        User user = testData.user("balance.queries@test.com");
+        for (Currency currency : Currency.values()) {
+            Account account = testData.account(user, currency);
+            for (int i = 0; i < 2; i++) {
+                fixedTermRepository.save(FixedTermDeposit.builder()
+                        .amount(Money.of(100D))
+                        .interest(Money.of(5D))
+                        .creationDate(LocalDate.now())
+                        .closingDate(LocalDate.now().plusDays(30))
+                        .account(account)
+                        .build());
+            }
+        }
+        login(user.getEmail());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BalanceDto> balances = accountService.getBalance();
+
+        assertEquals(Currency.values().length, balances.size());
+        balances.forEach(balance -> assertEquals(2, balance.getFixedTerm().size()));
+        assertEquals(balances.get(0).getCurrency(), balances.get(0).getFixedTerm().get(0).getCurrency());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -1,14 +1,17 @@
 package com.alkemy.wallet.service;
 
 import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.model.enums.Currency;
 import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.util.AccountIdCache;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 
@@ -18,8 +21,11 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +40,9 @@ class AccountServiceTest {
     @Mock
     private ModelMapper mapper;
 
+    @Spy
+    private AccountIdCache accountIdCache = new AccountIdCache(10);
+
     @Test
     public void getAccountsByUserId() {
 
@@ -41,8 +50,8 @@ class AccountServiceTest {
         Account accountMock = new Account();
         accountMock.setId(1l);
         accountMock.setCurrency(Currency.usd);
-        accountMock.setTransactionLimit(10.0);
-        accountMock.setBalance(100.00);
+        accountMock.setTransactionLimit(Money.of(10.0));
+        accountMock.setBalance(Money.of(100.00));
         accountMock.setId(10l);
         accountMock.setCreationDate(new Date());
 //        accountMock.setTimestamp(new Timestamp(System.currentTimeMillis()));
@@ -88,4 +97,15 @@ class AccountServiceTest {
         assertEquals("El usuario no posee cuentas", exceptionMessage);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getAccountIdByCurrency_probesTheIndexOnce() {
+        when(accountRepository.findIdByUserIdAndCurrency(10L, Currency.usd))
+                .thenReturn(Optional.of(7L));
+
+        assertEquals(7L, accountService.getAccountIdByCurrency(10L, Currency.usd));
+        assertEquals(7L, accountService.getAccountIdByCurrency(10L, Currency.usd));
+
+        verify(accountRepository, times(1)).findIdByUserIdAndCurrency(10L, Currency.usd);
+    }
+
+}
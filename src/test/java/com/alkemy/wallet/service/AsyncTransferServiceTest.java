@@ -0,0 +1,128 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransferRequestStatusDto;
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.exception.TransferQueueFullException;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.enums.TransferRequestState;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.service.interfaces.ITransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AsyncTransferServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicReference<String> workerUser = new AtomicReference<>();
+    private AsyncTransferService asyncTransferService;
+
+    @BeforeEach
+    void setUp() {
+        ITransactionService transactionService = mock(ITransactionService.class);
+        when(transactionService.makeTransaction(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            workerUser.set(SecurityContextHolder.getContext().getAuthentication().getName());
+            ResponseTransactionDto transaction = new ResponseTransactionDto();
+            transaction.setAmount(Money.of(10D));
+            return ResponseEntity.status(HttpStatus.OK).body(transaction);
+        });
+        IAccountRepository accountRepository = mock(IAccountRepository.class);
+        when(accountRepository.existsById(anyLong())).thenReturn(true);
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("transfer.queue.full.exception", Locale.ENGLISH, "queue full, retry in {0}");
+        messageSource.addMessage("transfer.request.notfound.exception", Locale.ENGLISH, "not found {0}");
+        messageSource.addMessage("transfer.async.shutdown.exception", Locale.ENGLISH, "shut down");
+        asyncTransferService = new AsyncTransferService(transactionService, accountRepository, messageSource,
+                new SimpleMeterRegistry(), 1, 1, Duration.ofSeconds(3), Duration.ofMinutes(1), 100, Duration.ofMillis(100));
+        login("sender@test.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        asyncTransferService.stop();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void submit_runsTheTransferWithTheSubmittersContext() throws Exception {
+        TransferRequestStatusDto queued = asyncTransferService.submit(request());
+        assertEquals(TransferRequestState.pending, queued.getState());
+
+        release.countDown();
+        TransferRequestStatusDto status = awaitFinished(queued.getId());
+        assertEquals(TransferRequestState.completed, status.getState());
+        assertEquals(Money.of(10D), status.getTransaction().getAmount());
+        assertEquals("sender@test.com", workerUser.get());
+
+        login("someone.else@test.com");
+        assertThrows(ResourceNotFoundException.class, () -> asyncTransferService.getStatus(queued.getId()));
+    }
+
+    @Test
+    void submit_refusesWorkWhenTheQueueIsFull() {
+        asyncTransferService.submit(request());
+        asyncTransferService.submit(request());
+
+        TransferQueueFullException e = assertThrows(TransferQueueFullException.class,
+                () -> asyncTransferService.submit(request()));
+        assertEquals(3, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void stop_marksTheTransfersStillQueuedAsFailed() {
+        asyncTransferService.submit(request());
+        TransferRequestStatusDto queued = asyncTransferService.submit(request());
+
+        asyncTransferService.stop();
+
+        TransferRequestStatusDto status = asyncTransferService.getStatus(queued.getId());
+        assertEquals(TransferRequestState.failed, status.getState());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, status.getStatus());
+        assertEquals("shut down", status.getError());
+    }
+
+    private TransferRequestStatusDto awaitFinished(String requestId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        TransferRequestStatusDto status = asyncTransferService.getStatus(requestId);
+        while (status.getCompletedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = asyncTransferService.getStatus(requestId);
+        }
+        return status;
+    }
+
+    private static void login(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static RequestTransactionDto request() {
+        RequestTransactionDto transactionDto = new RequestTransactionDto();
+        transactionDto.setAmount(Money.of(10D));
+        transactionDto.setAccount(AccountDto.builder().id(2L).build());
+        return transactionDto;
+    }
+}
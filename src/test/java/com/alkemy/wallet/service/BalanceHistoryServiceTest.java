@@ -0,0 +1,84 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.BalanceAtDto;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.FixedTermDeposit;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.repository.IFixedTermRepository;
+import com.alkemy.wallet.service.interfaces.IBalanceHistoryService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static com.alkemy.wallet.service.WalletTestData.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "wallet.balance-snapshots.lag=0s")
+class BalanceHistoryServiceTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private IBalanceHistoryService balanceHistoryService;
+    @Autowired
+    private ITransferService transferService;
+    @Autowired
+    private IFixedTermRepository fixedTermRepository;
+
+    @Test
+    void getBalanceAt_startsFromTheSnapshotAndReplaysTheRest() throws InterruptedException {
+        Account account = testData.account("history@test.com");
+        Instant beforeAnything = Instant.now();
+        Thread.sleep(5);
+        transferService.deposit(account.getId(), request(Money.of(100D), account.getId()));
+        transferService.payment(account.getId(), request(Money.of(30D), account.getId()));
+        Thread.sleep(5);
+        balanceHistoryService.takeSnapshots();
+        Instant afterSnapshot = Instant.now();
+        Thread.sleep(5);
+        transferService.deposit(account.getId(), request(Money.of(50D), account.getId()));
+        Thread.sleep(5);
+
+        BalanceAtDto now = balanceHistoryService.getBalanceAt(account.getId(), Instant.now());
+        assertEquals(Money.of(120D), now.getBalance());
+        assertNotNull(now.getSnapshotAt());
+        assertEquals(1, now.getReplayedTransactions());
+
+        BalanceAtDto atSnapshot = balanceHistoryService.getBalanceAt(account.getId(), afterSnapshot);
+        assertEquals(Money.of(70D), atSnapshot.getBalance());
+        assertEquals(0, atSnapshot.getReplayedTransactions());
+
+        assertEquals(Money.ZERO, balanceHistoryService.getBalanceAt(account.getId(), beforeAnything).getBalance());
+    }
+
+    @Test
+    void getBalanceAt_deductsAFixedTermOnlyFromTheInstantItWasOpened() throws InterruptedException {
+        Account account = testData.account("history.fixed@test.com");
+        transferService.deposit(account.getId(), request(Money.of(100D), account.getId()));
+        Thread.sleep(5);
+        Instant beforeFixedTerm = Instant.now();
+        Thread.sleep(5);
+        fixedTermRepository.save(FixedTermDeposit.builder()
+                .amount(Money.of(40D))
+                .interest(Money.of(1D))
+                .creationDate(LocalDate.now())
+                .closingDate(LocalDate.now().plusDays(30))
+                .account(account)
+                .build());
+        Thread.sleep(5);
+
+        assertEquals(Money.of(100D), balanceHistoryService.getBalanceAt(account.getId(), beforeFixedTerm).getBalance());
+        assertEquals(Money.of(60D), balanceHistoryService.getBalanceAt(account.getId(), Instant.now()).getBalance());
+    }
+}
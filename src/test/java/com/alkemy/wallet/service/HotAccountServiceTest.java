@@ -0,0 +1,89 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.exception.BalanceShardException;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.service.interfaces.IAccountService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.alkemy.wallet.service.WalletTestData.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class HotAccountServiceTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private ITransferService transferService;
+    @Autowired
+    private HotAccountService hotAccountService;
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private IAccountRepository accountRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void credits_goToShards_andBalanceStaysExact() {
+        Account sender = testData.account("hot.sender@test.com");
+        Account merchant = testData.account("hot.merchant@test.com");
+        hotAccountService.markHot(merchant.getId(), 4);
+        assertTrue(hotAccountService.isHot(merchant.getId()));
+
+        transferService.deposit(sender.getId(), request(Money.of(1000D), sender.getId()));
+        for (int i = 0; i < 3; i++) {
+            transferService.transfer(sender.getId(), merchant.getId(), request(Money.of(100D), merchant.getId()));
+        }
+        transferService.deposit(merchant.getId(), request(Money.of(5D), merchant.getId()));
+
+        assertEquals(Money.ZERO, accountRepository.findById(merchant.getId()).orElseThrow().getBalance());
+        assertEquals(Money.of(305D), accountService.getAccountsByUserEmail("hot.merchant@test.com").get(0).getBalance());
+
+        transferService.transfer(merchant.getId(), sender.getId(), request(Money.of(250D), sender.getId()));
+
+        assertEquals(Money.of(55D), accountRepository.findById(merchant.getId()).orElseThrow().getBalance());
+        assertEquals(Money.of(55D), accountService.getAccountsByUserEmail("hot.merchant@test.com").get(0).getBalance());
+        assertEquals(Money.of(950D), accountService.getAccountsByUserEmail("hot.sender@test.com").get(0).getBalance());
+
+        transferService.transfer(sender.getId(), merchant.getId(), request(Money.of(10D), merchant.getId()));
+        assertEquals(Money.of(55D), accountRepository.findById(merchant.getId()).orElseThrow().getBalance());
+        hotAccountService.foldPendingCredits();
+        assertEquals(Money.of(65D), accountRepository.findById(merchant.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void updateBalance_foldsTheShards_beforeCheckingTheBalance() {
+        Account sender = testData.account("hot.payer@test.com");
+        Account merchant = testData.account("hot.saver@test.com");
+        hotAccountService.markHot(merchant.getId(), 2);
+        transferService.deposit(sender.getId(), request(Money.of(500D), sender.getId()));
+        transferService.transfer(sender.getId(), merchant.getId(), request(Money.of(300D), merchant.getId()));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                accountService.updateBalance(merchant.getId(), Money.of(200D)));
+
+        assertEquals(Money.of(100D), accountRepository.findById(merchant.getId()).orElseThrow().getBalance());
+        assertEquals(Money.of(100D), accountService.getAccountsByUserEmail("hot.saver@test.com").get(0).getBalance());
+    }
+
+    @Test
+    void markHot_rejectsShardsOutOfRange() {
+        Account account = testData.account("hot.range@test.com");
+        assertThrows(BalanceShardException.class, () -> hotAccountService.markHot(account.getId(), -1));
+        assertThrows(BalanceShardException.class, () -> hotAccountService.markHot(account.getId(), 1000));
+    }
+}
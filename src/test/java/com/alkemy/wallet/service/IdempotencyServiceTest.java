@@ -0,0 +1,173 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.IdempotentResponseDto;
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransferRequestStatusDto;
+import com.alkemy.wallet.exception.IdempotencyConflictException;
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.enums.TransferRequestState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StaticMessageSource messageSource;
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        messageSource = new StaticMessageSource();
+        messageSource.addMessage("idempotency.inflight.exception", Locale.ENGLISH, "in flight");
+        messageSource.addMessage("idempotency.mismatch.exception", Locale.ENGLISH, "different request");
+        idempotencyService = new IdempotencyService(new InMemoryIdempotencyStore(Duration.ofMinutes(1), 100),
+                new ObjectMapper(), messageSource, meterRegistry);
+    }
+
+    @Test
+    void execute_replaysStoredResponse_withoutRunningTheActionAgain() {
+        ResponseEntity<?> first = idempotencyService.execute("key-1", "sendArs", request(100D), this::transfer);
+        ResponseEntity<?> retry = idempotencyService.execute("key-1", "sendArs", request(100D), this::transfer);
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(0.5, meterRegistry.get("wallet.idempotency.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void execute_releasesKey_whenTheRequestFails() {
+        idempotencyService.execute("key-2", "payment", request(100D), () -> ResponseEntity.badRequest().build());
+        idempotencyService.execute("key-2", "payment", request(100D), this::transfer);
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_rejectsDuplicate_whileTheFirstIsInFlight() {
+        idempotencyService.execute("key-3", "deposit", request(100D), () -> {
+            assertThrows(IdempotencyConflictException.class,
+                    () -> idempotencyService.execute("key-3", "deposit", request(100D), this::transfer));
+            return transfer();
+        });
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_rejectsTheKey_whenReusedForADifferentRequest() {
+        idempotencyService.execute("key-4", "sendArs", request(100D), this::transfer);
+
+        IdempotencyConflictException conflict = assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("key-4", "sendArs", request(200D), this::transfer));
+        assertEquals("different request", conflict.getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_replaysTheQueuedRequest_insteadOfQueueingItAgain() {
+        ResponseEntity<?> first = idempotencyService.execute("key-5", "sendArs", request(100D), this::queue);
+        ResponseEntity<?> retry = idempotencyService.execute("key-5", "sendArs", request(100D), this::queue);
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.ACCEPTED, retry.getStatusCode());
+        assertEquals(first.getHeaders().getLocation(), retry.getHeaders().getLocation());
+        assertEquals("request-1", ((TransferRequestStatusDto) retry.getBody()).getId());
+    }
+
+    @Test
+    void execute_replaysTheFirstResponse_whenTheRetryRacesItsCompletion() throws Exception {
+        CountDownLatch retrySearched = new CountDownLatch(1);
+        CountDownLatch firstCompleted = new CountDownLatch(1);
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(1), 100) {
+            @Override
+            public Optional<IdempotentResponseDto> find(String key) {
+                Optional<IdempotentResponseDto> found = super.find(key);
+                if (Thread.currentThread().getName().equals("retry")) {
+                    retrySearched.countDown();
+                }
+                return found;
+            }
+
+            @Override
+            public boolean reserve(String key, String requestHash) {
+                if (Thread.currentThread().getName().equals("retry")) {
+                    await(firstCompleted);
+                }
+                return super.reserve(key, requestHash);
+            }
+
+            @Override
+            public void complete(String key, IdempotentResponseDto response) {
+                super.complete(key, response);
+                firstCompleted.countDown();
+            }
+        };
+        IdempotencyService service = new IdempotencyService(store, new ObjectMapper(), messageSource,
+                new SimpleMeterRegistry());
+        AtomicReference<ResponseEntity<?>> retry = new AtomicReference<>();
+        Thread retryThread = new Thread(() ->
+                retry.set(service.execute("key-6", "sendArs", request(100D), this::transfer)), "retry");
+
+        ResponseEntity<?> first = service.execute("key-6", "sendArs", request(100D), () -> {
+            retryThread.start();
+            await(retrySearched);
+            return transfer();
+        });
+        retryThread.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.OK, retry.get().getStatusCode());
+        assertEquals(first.getBody(), retry.get().getBody());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RequestTransactionDto request(double amount) {
+        RequestTransactionDto request = new RequestTransactionDto();
+        request.setAmount(Money.of(amount));
+        request.setAccount(AccountDto.builder().id(2L).currency(Currency.ars).build());
+        return request;
+    }
+
+    private ResponseEntity<?> transfer() {
+        ResponseTransactionDto transactionDto = new ResponseTransactionDto();
+        transactionDto.setId((long) calls.incrementAndGet());
+        transactionDto.setAmount(Money.of(100D));
+        return ResponseEntity.ok(transactionDto);
+    }
+
+    private ResponseEntity<?> queue() {
+        String requestId = "request-" + calls.incrementAndGet();
+        return ResponseEntity.accepted()
+                .location(URI.create("/transactions/requests/" + requestId))
+                .body(TransferRequestStatusDto.builder().id(requestId).state(TransferRequestState.pending).build());
+    }
+}
@@ -0,0 +1,87 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.KeysetPageDto;
+import com.alkemy.wallet.dto.ResponseUserDto;
+import com.alkemy.wallet.exception.InvalidCursorException;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.repository.IUserRepository;
+import com.alkemy.wallet.service.interfaces.IAccountService;
+import com.alkemy.wallet.service.interfaces.ICustomUserDetailsService;
+import com.alkemy.wallet.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class KeysetPaginationTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private ICustomUserDetailsService customUserDetailsService;
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    @Test
+    void cursorWalksEveryRowOnceInIdOrder() {
+        List<Long> createdAccounts = new ArrayList<>();
+        List<Long> createdUsers = new ArrayList<>();
+        for (int i = 0; i < 2 * KeysetCursor.PAGE_SIZE + 3; i++) {
+            Account account = testData.account("keyset" + i + "@test.com");
+            createdAccounts.add(account.getId());
+            createdUsers.add(account.getUser().getId());
+        }
+
+        KeysetPageDto<AccountDto> accounts = accountService.findAccountsAfter(null, true);
+        assertEquals(accountRepository.count(), accounts.getTotal());
+        List<Long> seenAccounts = new ArrayList<>();
+        while (true) {
+            accounts.getContent().forEach(account -> seenAccounts.add(account.getId()));
+            if (accounts.getNext() == null) {
+                break;
+            }
+            assertEquals(KeysetCursor.PAGE_SIZE, accounts.getContent().size());
+            accounts = accountService.findAccountsAfter(accounts.getNext(), false);
+            assertNull(accounts.getTotal());
+        }
+        assertEquals(accountRepository.count(), seenAccounts.size());
+        assertEquals(seenAccounts.stream().sorted().distinct().toList(), seenAccounts);
+        assertTrue(seenAccounts.containsAll(createdAccounts));
+
+        KeysetPageDto<ResponseUserDto> users = customUserDetailsService.findUsersAfter(null, false);
+        List<Long> seenUsers = new ArrayList<>();
+        while (true) {
+            users.getContent().forEach(user -> seenUsers.add(user.getId()));
+            if (users.getNext() == null) {
+                break;
+            }
+            users = customUserDetailsService.findUsersAfter(users.getNext(), false);
+        }
+        assertEquals(userRepository.count(), seenUsers.size());
+        assertEquals(seenUsers.stream().sorted().distinct().toList(), seenUsers);
+        assertTrue(seenUsers.containsAll(createdUsers));
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThrows(InvalidCursorException.class, () -> accountService.findAccountsAfter("not-a-cursor", false));
+        assertThrows(InvalidCursorException.class, () -> customUserDetailsService.findUsersAfter("%%%", false));
+    }
+}
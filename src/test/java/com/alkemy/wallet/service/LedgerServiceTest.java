@@ -0,0 +1,59 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Transaction;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.repository.ITransactionRepository;
+import com.alkemy.wallet.service.interfaces.ILedgerService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static com.alkemy.wallet.service.WalletTestData.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class LedgerServiceTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private ITransferService transferService;
+    @Autowired
+    private ILedgerService ledgerService;
+    @Autowired
+    private IAccountRepository accountRepository;
+    @Autowired
+    private ITransactionRepository transactionRepository;
+
+    @Test
+    void rebuildBalances_recomputesProjection_fromTheJournal() {
+        Account sender = testData.account("ledger.sender@test.com");
+        Account receiver = testData.account("ledger.receiver@test.com");
+        transferService.deposit(sender.getId(), request(Money.of(1000D), sender.getId()));
+        Transaction payment = transferService.transfer(sender.getId(), receiver.getId(), request(Money.of(250D), receiver.getId()));
+
+        List<Transaction> legs = transactionRepository.findByAccount_idIn(List.of(sender.getId(), receiver.getId()))
+                .stream().filter(transaction -> payment.getTransferId().equals(transaction.getTransferId()))
+                .toList();
+        assertEquals(2, legs.size());
+
+        List<Account> accounts = accountRepository.findAllById(List.of(sender.getId(), receiver.getId()));
+        accounts.forEach(account -> account.setBalance(Money.ZERO));
+        accountRepository.saveAll(accounts);
+
+        assertTrue(ledgerService.rebuildBalances().getAccounts() >= 2);
+        assertEquals(Money.of(750D), accountRepository.findById(sender.getId()).orElseThrow().getBalance());
+        assertEquals(Money.of(250D), accountRepository.findById(receiver.getId()).orElseThrow().getBalance());
+    }
+}
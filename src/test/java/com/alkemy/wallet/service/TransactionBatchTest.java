@@ -0,0 +1,106 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.listing.RoleName;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.repository.IRoleRepository;
+import com.alkemy.wallet.repository.IUserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+
+import static com.alkemy.wallet.service.WalletTestData.request;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class TransactionBatchTest {
+
+    static final String SENDER = "batch.sender@test.com";
+    static final String RECEIVER = "batch.receiver@test.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private IRoleRepository roleRepository;
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    private Account senderAccount;
+    private Account receiverAccount;
+
+    @BeforeEach
+    void setUp() {
+        senderAccount = accountFor(SENDER, Money.of(1000D));
+        receiverAccount = accountFor(RECEIVER, Money.ZERO);
+    }
+
+    @Test
+    @WithMockUser(username = SENDER)
+    void sendBatch_reportsEachItem_withoutAbortingTheRest() throws Exception {
+        List<RequestTransactionDto> batch = List.of(
+                request(Money.of(200D), receiverAccount.getId()),
+                request(Money.ZERO, receiverAccount.getId()),
+                request(Money.of(900D), receiverAccount.getId()),
+                request(Money.of(100D), 999999L),
+                request(Money.of(300D), receiverAccount.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/transactions/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("OK")))
+                .andExpect(jsonPath("$[0].transaction.amount", is(200D)))
+                .andExpect(jsonPath("$[1].status", is("BAD_REQUEST")))
+                .andExpect(jsonPath("$[2].status", is("BAD_REQUEST")))
+                .andExpect(jsonPath("$[3].status", is("NOT_FOUND")))
+                .andExpect(jsonPath("$[4].status", is("OK")))
+                .andExpect(jsonPath("$[4].index", is(4)));
+
+        assertEquals(Money.of(500D), accountRepository.findById(senderAccount.getId()).orElseThrow().getBalance());
+        assertEquals(Money.of(500D), accountRepository.findById(receiverAccount.getId()).orElseThrow().getBalance());
+    }
+
+    private Account accountFor(String email, Money balance) {
+        User user = userRepository.findOptionalByEmail(email).orElseGet(() -> userRepository.save(User.builder()
+                .firstName("batch")
+                .lastName("batch")
+                .email(email)
+                .password("batch")
+                .role(roleRepository.findByName(RoleName.ROLE_USER))
+                .build()));
+        Account account = accountRepository.findByCurrencyAndUser_Email(Currency.ars, email);
+        if (account == null) {
+            account = new Account(Currency.ars);
+            account.setUser(user);
+        }
+        account.setBalance(balance);
+        return accountRepository.save(account);
+    }
+}
@@ -0,0 +1,87 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.Transaction;
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.enums.ExportFormat;
+import com.alkemy.wallet.service.interfaces.ITransactionExportService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static com.alkemy.wallet.service.WalletTestData.login;
+import static com.alkemy.wallet.service.WalletTestData.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "wallet.transactions.export.fetch-size=2")
+class TransactionExportServiceTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private ITransactionExportService exportService;
+    @Autowired
+    private ITransferService transferService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void export_streamsEveryRowOldestFirst_inBothFormats() throws Exception {
+        Account account = testData.account("export.owner@test.com");
+        testData.account("export.stranger@test.com");
+        Long userId = account.getUser().getId();
+        Transaction first = transferService.deposit(account.getId(), request(Money.of(10.5D), account.getId(), Currency.ars, "rent, \"june\""));
+        for (int i = 0; i < 4; i++) {
+            transferService.deposit(account.getId(), request(Money.of(1D), account.getId(), Currency.ars, "deposit " + i));
+        }
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(5, exportService.export(userId, ExportFormat.csv, null, null, csv));
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(6, lines.length);
+        assertEquals(String.join(",", TransactionExportService.COLUMNS), lines[0]);
+        assertTrue(lines[1].startsWith(first.getId() + ","));
+        assertTrue(lines[1].contains(",10.50,ars," + account.getId() + ",\"rent, \"\"june\"\"\""));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(5, exportService.export(userId, ExportFormat.ndjson, null, null, ndjson));
+        String[] objects = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, objects.length);
+        JsonNode row = objectMapper.readTree(objects[0]);
+        assertEquals(first.getId(), row.get("id").asLong());
+        assertEquals("rent, \"june\"", row.get("description").asText());
+        assertEquals(0, row.get("amount").decimalValue().compareTo(Money.of(10.5D).toBigDecimal()));
+
+        ByteArrayOutputStream none = new ByteArrayOutputStream();
+        Instant future = Instant.now().plusSeconds(3600);
+        assertEquals(0, exportService.export(userId, ExportFormat.csv, future, null, none));
+
+        login("export.owner@test.com");
+        assertDoesNotThrow(() -> exportService.checkHistoryAllowed(userId));
+        login("export.stranger@test.com");
+        assertThrows(AccessDeniedException.class, () -> exportService.checkHistoryAllowed(userId));
+    }
+}
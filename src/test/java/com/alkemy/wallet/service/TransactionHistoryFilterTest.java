@@ -0,0 +1,95 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransactionFilterDto;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.enums.TypeOfTransaction;
+import com.alkemy.wallet.service.interfaces.ITransactionService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static com.alkemy.wallet.service.WalletTestData.request;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "wallet.transactions.page.max-size=3")
+class TransactionHistoryFilterTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private ITransactionService transactionService;
+    @Autowired
+    private ITransferService transferService;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getByUserId_appliesFiltersInSql_newestFirst_andCapsTheSize() {
+        User user = testData.user("history.filter@test.com");
+        Account ars = testData.account(user, Currency.ars);
+        Account usd = testData.account(user, Currency.usd);
+        Long small = transferService.deposit(ars.getId(), request(Money.of(5D), ars)).getId();
+        Long big = transferService.deposit(ars.getId(), request(Money.of(500D), ars)).getId();
+        Long paid = transferService.payment(ars.getId(), request(Money.of(50D), ars)).getId();
+        Long dollars = transferService.deposit(usd.getId(), request(Money.of(20D), usd)).getId();
+
+        assertEquals(List.of(dollars, paid, big), ids(user, new TransactionFilterDto(), 10));
+        assertEquals(List.of(dollars), ids(user, TransactionFilterDto.builder().currency(Currency.usd).build(), 10));
+        assertEquals(List.of(paid), ids(user, TransactionFilterDto.builder().type(TypeOfTransaction.payment).build(), 10));
+        assertEquals(List.of(paid, big), ids(user, TransactionFilterDto.builder()
+                .currency(Currency.ars)
+                .minAmount(BigDecimal.valueOf(50))
+                .build(), 10));
+        assertEquals(List.of(dollars, small), ids(user, TransactionFilterDto.builder()
+                .maxAmount(new BigDecimal("20.00"))
+                .build(), 10));
+        assertEquals(List.of(), ids(user, TransactionFilterDto.builder()
+                .from(Instant.now().plusSeconds(60))
+                .build(), 10));
+        assertEquals(List.of(dollars), ids(user, TransactionFilterDto.builder()
+                .to(Instant.now().plusSeconds(60))
+                .build(), 1));
+    }
+
+    @Test
+    @WithMockUser(username = "history.filter.reader@test.com", authorities = "ROLE_USER")
+    void getTransactions_servesOnlyTheCallersHistory_andRejectsInexactAmounts() throws Exception {
+        User reader = testData.user("history.filter.reader@test.com");
+        User other = testData.user("history.filter.other@test.com");
+
+        mockMvc.perform(get("/transactions/{userId}", reader.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/transactions/{userId}", other.getId())).andExpect(status().isForbidden());
+        mockMvc.perform(get("/transactions/{userId}", reader.getId()).param("minAmount", "10.005"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions/{userId}", reader.getId()).param("maxAmount", "1e30"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> ids(User user, TransactionFilterDto filter, int size) {
+        return transactionService.getByUserId(user.getId(), filter, size).stream()
+                .map(ResponseTransactionDto::getId)
+                .toList();
+    }
+}
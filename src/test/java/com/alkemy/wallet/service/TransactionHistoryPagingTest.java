@@ -0,0 +1,111 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.KeysetPageDto;
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.exception.InvalidCursorException;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.service.interfaces.ITransactionService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.alkemy.wallet.service.WalletTestData.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "wallet.transactions.page.max-size=7")
+class TransactionHistoryPagingTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private ITransactionService transactionService;
+    @Autowired
+    private ITransferService transferService;
+
+    @Test
+    void nextAndPrevCursorsWalkTheHistoryBothWays() {
+        Account account = testData.account("history.paging@test.com");
+        List<Long> deposits = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            deposits.add(transferService.deposit(account.getId(), request(Money.of(1D), account.getId())).getId());
+        }
+        Long userId = account.getUser().getId();
+
+        // the requested size of 50 is capped at the configured 7
+        assertEquals(List.of(7, 7, 7, 2), walk(userId, deposits).stream().map(List::size).toList());
+    }
+
+    @Test
+    void slicesMergeTheInterleavedHistoryOfEveryAccount() {
+        User user = testData.user("history.two.accounts@test.com");
+        Account ars = testData.account(user, Currency.ars);
+        Account usd = testData.account(user, Currency.usd);
+        List<Long> deposits = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Account account = i % 3 == 0 ? usd : ars;
+            deposits.add(transferService.deposit(account.getId(), request(Money.of(1D), account)).getId());
+        }
+
+        assertEquals(List.of(7, 7, 2), walk(user.getId(), deposits).stream().map(List::size).toList());
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThrows(InvalidCursorException.class,
+                () -> transactionService.findTransactionsByUserId(1L, "bm90LWEtY3Vyc29y", 10));
+    }
+
+    /**
+     * Follows next to the end and prev back to the start, checking both walks against
+     * the postings newest first; returns the ids of each forward slice.
+     */
+    private List<List<Long>> walk(Long userId, List<Long> postings) {
+        List<List<Long>> forward = new ArrayList<>();
+        List<String> prevCursors = new ArrayList<>();
+        KeysetPageDto<ResponseTransactionDto> slice = transactionService.findTransactionsByUserId(userId, null, 50);
+        assertNull(slice.getPrev());
+        while (true) {
+            forward.add(ids(slice));
+            prevCursors.add(slice.getPrev());
+            if (slice.getNext() == null) {
+                break;
+            }
+            slice = transactionService.findTransactionsByUserId(userId, slice.getNext(), 50);
+        }
+
+        List<Long> newestFirst = forward.stream().flatMap(List::stream).toList();
+        List<Long> expected = new ArrayList<>(postings);
+        Collections.reverse(expected);
+        assertEquals(expected, newestFirst);
+
+        // following prev from the last slice gives back the same slices, newest first within each
+        String prev = prevCursors.get(prevCursors.size() - 1);
+        for (int i = forward.size() - 2; i >= 0; i--) {
+            KeysetPageDto<ResponseTransactionDto> back = transactionService.findTransactionsByUserId(userId, prev, 50);
+            assertEquals(forward.get(i), ids(back));
+            assertNotNull(back.getNext());
+            prev = back.getPrev();
+        }
+        assertNull(prev);
+        return forward;
+    }
+
+    private static List<Long> ids(KeysetPageDto<ResponseTransactionDto> slice) {
+        return slice.getContent().stream().map(ResponseTransactionDto::getId).toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.exception.ResourceNotFoundException;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.Transaction;
+import com.alkemy.wallet.service.interfaces.ITransactionService;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static com.alkemy.wallet.service.WalletTestData.login;
+import static com.alkemy.wallet.service.WalletTestData.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(WalletTestData.class)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class TransactionOwnershipTest {
+
+    @Autowired
+    private WalletTestData testData;
+    @Autowired
+    private ITransactionService transactionService;
+    @Autowired
+    private ITransferService transferService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getAndPatch_onlyReachTheOwnersTransactions() {
+        Account account = testData.account("owner.tx@test.com");
+        testData.account("stranger.tx@test.com");
+        Transaction deposit = transferService.deposit(account.getId(), request(Money.of(40D), account.getId()));
+
+        login("owner.tx@test.com");
+        ResponseTransactionDto found = (ResponseTransactionDto) transactionService.getTransaction(deposit.getId()).getBody();
+        assertEquals(Money.of(40D), found.getAmount());
+        assertEquals(account.getId(), found.getAccount().getId());
+
+        ResponseTransactionDto patched = (ResponseTransactionDto) transactionService
+                .patchTransaction(deposit.getId(), "rent").getBody();
+        assertEquals("rent", patched.getDescription());
+
+        login("stranger.tx@test.com");
+        assertThrows(ResourceNotFoundException.class, () -> transactionService.getTransaction(deposit.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> transactionService.patchTransaction(deposit.getId(), "x"));
+        assertThrows(ResourceNotFoundException.class, () -> transactionService.getTransaction(-1L));
+    }
+}
@@ -9,6 +9,7 @@ import com.alkemy.wallet.model.Account;
 import com.alkemy.wallet.model.Transaction;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.ITransactionRepository;
 import com.alkemy.wallet.repository.IUserRepository;
@@ -102,24 +103,24 @@ class TransactionSendArsTest {
 
         senderAccountTest = Account.builder()
                 .id(1L)
-                .balance(3000.)
+                .balance(Money.of(3000.))
                 .user(userTest)
                 .currency(Currency.ars)
-                .transactionLimit(3000.).build();
+                .transactionLimit(Money.of(3000.)).build();
 
         receivingAccountTest = Account.builder()
                 .id(2L)
-                .balance(3000.)
+                .balance(Money.of(3000.))
                 .user(userTest2)
                 .currency(Currency.ars)
-                .transactionLimit(3000.).build();
+                .transactionLimit(Money.of(3000.)).build();
 
         accountsTest = new ArrayList<>();
         accountsTest.add(senderAccountTest);
 
         transactionBetweenArsAccounts = new RequestTransactionDto();
         transactionBetweenArsAccounts.setDescription("Descripcion prueba ARS");
-        transactionBetweenArsAccounts.setAmount(200.);
+        transactionBetweenArsAccounts.setAmount(Money.of(200.));
         transactionBetweenArsAccounts.setAccount(mapper.getMapper().map(receivingAccountTest, AccountDto.class));
 
         transaction = mapper.getMapper().map(transactionBetweenArsAccounts, Transaction.class);
@@ -129,7 +130,7 @@ class TransactionSendArsTest {
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
         when(userRepository.findByEmail(jwtUtil.getValue(token))).thenReturn(userTest);
         when(accountRespository.findAllByUser_Id(anyLong())).thenReturn(accountsTest);
-        when(accountService.getAccountByCurrency(userTest.getId(), Currency.ars)).thenReturn(senderAccountTest);
+        when(accountService.getAccountIdByCurrency(userTest.getId(), Currency.ars)).thenReturn(senderAccountTest.getId());
     }
 
     @Test
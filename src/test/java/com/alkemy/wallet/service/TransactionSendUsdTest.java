@@ -9,6 +9,7 @@ import com.alkemy.wallet.model.Account;
 import com.alkemy.wallet.model.Transaction;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.ITransactionRepository;
 import com.alkemy.wallet.repository.IUserRepository;
@@ -103,24 +104,24 @@ class TransactionSendUsdTest {
 
         senderAccountTest = Account.builder()
                 .id(1L)
-                .balance(3000.)
+                .balance(Money.of(3000.))
                 .user(userTest)
                 .currency(Currency.usd)
-                .transactionLimit(3000.).build();
+                .transactionLimit(Money.of(3000.)).build();
 
         receivingAccountTest = Account.builder()
                 .id(2L)
-                .balance(3000.)
+                .balance(Money.of(3000.))
                 .user(userTest2)
                 .currency(Currency.usd)
-                .transactionLimit(3000.).build();
+                .transactionLimit(Money.of(3000.)).build();
 
         accountsTest = new ArrayList<>();
         accountsTest.add(senderAccountTest);
 
         transactionBetweenUsdAccounts = new RequestTransactionDto();
         transactionBetweenUsdAccounts.setDescription("Descripcion de prueba USD");
-        transactionBetweenUsdAccounts.setAmount(50.);
+        transactionBetweenUsdAccounts.setAmount(Money.of(50.));
         transactionBetweenUsdAccounts.setAccount(mapper.getMapper().map(receivingAccountTest, AccountDto.class));
 
         transaction = mapper.getMapper().map(transactionBetweenUsdAccounts, Transaction.class);
@@ -130,7 +131,7 @@ class TransactionSendUsdTest {
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
         when(userRepository.findByEmail(jwtUtil.getValue(token))).thenReturn(userTest);
         when(accountRespository.findAllByUser_Id(anyLong())).thenReturn(accountsTest);
-        when(accountService.getAccountByCurrency(userTest.getId(), Currency.usd)).thenReturn(senderAccountTest);
+        when(accountService.getAccountIdByCurrency(userTest.getId(), Currency.usd)).thenReturn(senderAccountTest.getId());
     }
 
     @Test
@@ -8,6 +8,7 @@ import com.alkemy.wallet.model.Account;
 import com.alkemy.wallet.model.Transaction;
 import com.alkemy.wallet.model.User;
 import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.model.Money;
 import com.alkemy.wallet.repository.IAccountRepository;
 import com.alkemy.wallet.repository.ITransactionRepository;
 import com.alkemy.wallet.repository.IUserRepository;
@@ -36,6 +37,8 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -88,19 +91,19 @@ class TransactionServiceTest {
 
         accountTest = Account.builder()
                 .id(1L)
-                .balance(0.)
+                .balance(Money.of(0.))
                 .user(userTest)
                 .currency(Currency.ars)
-                .transactionLimit(3000.).build();
+                .transactionLimit(Money.of(3000.)).build();
 
         transactionDeposit = new RequestTransactionDto();
         transactionDeposit.setDescription("Descripcion de prueba");
-        transactionDeposit.setAmount(1000.0);
+        transactionDeposit.setAmount(Money.of(1000.0));
         transactionDeposit.setAccount(mapper.getMapper().map(accountTest, AccountDto.class));
 
         transactionDepositWithNoAmount= new RequestTransactionDto();
         transactionDepositWithNoAmount.setDescription("Descripcion de prueba error");
-        transactionDepositWithNoAmount.setAmount(0.);
+        transactionDepositWithNoAmount.setAmount(Money.of(0.));
 
         transactionDepositWithNoAmount.setAccount(mapper.getMapper().map(accountTest, AccountDto.class));
 
@@ -134,4 +137,22 @@ class TransactionServiceTest {
                 .content(objectMapper.writeValueAsString(transactionDepositWithNoAmount)))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(authorities = "ROLE_USER")
+    void sendArsWithNegativeAmount() throws Exception {
+        RequestTransactionDto negativeTransfer = new RequestTransactionDto();
+        negativeTransfer.setDescription("Descripcion de prueba negativa");
+        negativeTransfer.setAmount(Money.of(-1000.0));
+        negativeTransfer.setAccount(mapper.getMapper().map(accountTest, AccountDto.class));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/transactions/sendArs")
+                        .with(csrf().asHeader())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(negativeTransfer)))
+                .andExpect(status().isBadRequest());
+
+        verify(accountRespository, never()).findIdByUserIdAndCurrency(any(), any());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+}
@@ -0,0 +1,77 @@
+package com.alkemy.wallet.service;
+
+import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.listing.RoleName;
+import com.alkemy.wallet.model.Account;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.model.enums.Currency;
+import com.alkemy.wallet.repository.IAccountRepository;
+import com.alkemy.wallet.repository.IRoleRepository;
+import com.alkemy.wallet.repository.IUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+/**
+ * Users, accounts and transfer requests for the tests that run against the H2
+ * database. Pull it in with {@code @Import(WalletTestData.class)}.
+ */
+@TestComponent
+class WalletTestData {
+
+    @Autowired
+    private IUserRepository userRepository;
+    @Autowired
+    private IRoleRepository roleRepository;
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    User user(String email) {
+        return userRepository.save(User.builder()
+                .firstName("test")
+                .lastName("test")
+                .email(email)
+                .password("test")
+                .role(roleRepository.findByName(RoleName.ROLE_USER))
+                .build());
+    }
+
+    /**
+     * A new user with that email and an ARS account.
+     */
+    Account account(String email) {
+        return account(user(email), Currency.ars);
+    }
+
+    Account account(User user, Currency currency) {
+        Account account = new Account(currency);
+        account.setUser(user);
+        return accountRepository.save(account);
+    }
+
+    static RequestTransactionDto request(Money amount, Account account) {
+        return request(amount, account.getId(), account.getCurrency(), "test transfer");
+    }
+
+    static RequestTransactionDto request(Money amount, Long arsAccountId) {
+        return request(amount, arsAccountId, Currency.ars, "test transfer");
+    }
+
+    static RequestTransactionDto request(Money amount, Long accountId, Currency currency, String description) {
+        RequestTransactionDto transactionDto = new RequestTransactionDto();
+        transactionDto.setAmount(amount);
+        transactionDto.setDescription(description);
+        transactionDto.setAccount(AccountDto.builder().id(accountId).currency(currency).build());
+        return transactionDto;
+    }
+
+    static void login(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+}
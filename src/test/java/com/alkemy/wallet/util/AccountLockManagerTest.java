@@ -0,0 +1,77 @@
+package com.alkemy.wallet.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLockManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountLockManager lockManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockManager = new AccountLockManager(8, meterRegistry);
+    }
+
+    @Test
+    void withLocks_releasesStripes_whenActionFails() {
+        assertThrows(IllegalStateException.class, () -> lockManager.withLocks(() -> {
+            throw new IllegalStateException("boom");
+        }, 1L, 2L));
+
+        assertEquals("done", lockManager.withLocks(() -> "done", 2L, 1L));
+    }
+
+    @Test
+    void withLocks_countsContention_onSameAccount() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<?> holder = executor.submit(() -> lockManager.withLocks(() -> {
+                holding.countDown();
+                await(release);
+                return null;
+            }, 5L));
+            holding.await(5, TimeUnit.SECONDS);
+
+            Thread waiter = new Thread(() -> lockManager.withLocks(() -> null, 5L));
+            waiter.start();
+            while (contention(5L) == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            waiter.join(5000);
+
+            assertEquals(1.0, contention(5L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double contention(Long accountId) {
+        return meterRegistry.get("wallet.account.lock.contention")
+                .tag("stripe", String.valueOf(lockManager.stripeOf(accountId)))
+                .counter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
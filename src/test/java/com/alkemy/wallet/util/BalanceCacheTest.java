@@ -0,0 +1,68 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.dto.BalanceDto;
+import com.alkemy.wallet.model.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceCache balanceCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        balanceCache = new BalanceCache(10, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_loadsOnceUntilEvicted() {
+        balanceCache.get("user@test.com", this::load);
+        balanceCache.get("user@test.com", this::load);
+        assertEquals(1, loads.get());
+
+        balanceCache.evict("user@test.com");
+        balanceCache.get("user@test.com", this::load);
+        assertEquals(2, loads.get());
+        assertEquals(1D, meterRegistry.get("cache.gets").tag("cache", "balances").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evict_insideATransaction_waitsForTheCommit() {
+        balanceCache.get("user@test.com", this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        balanceCache.evict("user@test.com");
+        balanceCache.get("user@test.com", this::load);
+        assertEquals(1, loads.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        balanceCache.get("user@test.com", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    private List<BalanceDto> load() {
+        loads.incrementAndGet();
+        return List.of(BalanceDto.builder().id(1L).balance(Money.of(10D)).build());
+    }
+}
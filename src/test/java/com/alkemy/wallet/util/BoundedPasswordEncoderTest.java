@@ -0,0 +1,64 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void matches_runsOnTheBcryptPool_andRefusesWhenTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return Thread.currentThread().getName();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofSeconds(2),
+                mock(MessageSource.class), meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "b"));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("a", "b"));
+        awaitQueueSize(meterRegistry, 1);
+
+        PasswordHashingBusyException busy = assertThrows(PasswordHashingBusyException.class,
+                () -> encoder.matches("a", "b"));
+        assertEquals(2, busy.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("wallet.password.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(10, TimeUnit.SECONDS));
+        assertTrue(queued.get(10, TimeUnit.SECONDS));
+        assertTrue(encoder.encode("a").startsWith("bcrypt-"));
+        encoder.stop();
+    }
+
+    private static void awaitQueueSize(SimpleMeterRegistry meterRegistry, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("wallet.password.queue.size").gauge().value() != size
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
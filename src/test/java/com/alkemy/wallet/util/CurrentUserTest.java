@@ -0,0 +1,99 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.exception.UserNotLoggedException;
+import com.alkemy.wallet.listing.RoleName;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.repository.IUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CurrentUserTest {
+
+    private IUserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CurrentUser currentUser;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(IUserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("user.notlogged.exception", Locale.ENGLISH, "not logged");
+        currentUser = new CurrentUser(userRepository, messageSource, meterRegistry);
+
+        User user = User.builder().id(4L).email("current@test.com").build();
+        when(userRepository.findByEmail("current@test.com")).thenReturn(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("current@test.com", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void get_loadsTheUserOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        User user = currentUser.get();
+        assertEquals(4L, currentUser.getId());
+        assertSame(user, currentUser.get());
+
+        verify(userRepository, times(1)).findByEmail("current@test.com");
+        assertEquals(1, lookups("loaded"));
+        assertEquals(2, lookups("saved"));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        currentUser.get();
+        verify(userRepository, times(2)).findByEmail("current@test.com");
+    }
+
+    @Test
+    void get_outsideARequest_alwaysReachesTheDatabase() {
+        currentUser.get();
+        currentUser.get();
+
+        verify(userRepository, times(2)).findByEmail("current@test.com");
+        assertEquals(2, lookups("loaded"));
+    }
+
+    @Test
+    void getId_isReadFromTheTokenPrincipal() {
+        UserPrincipal principal = new UserPrincipal(7L, "token@test.com", RoleName.ROLE_USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertEquals(7L, currentUser.getId());
+        verifyNoInteractions(userRepository);
+        assertEquals(1, lookups("saved"));
+    }
+
+    @Test
+    void getId_refusesAnEmailWithoutUser() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("deleted@test.com", null, List.of()));
+
+        UserNotLoggedException e = assertThrows(UserNotLoggedException.class, currentUser::getId);
+        assertEquals("not logged", e.getMessage());
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("wallet.current_user.lookups").tag("result", result).counter().count();
+    }
+}
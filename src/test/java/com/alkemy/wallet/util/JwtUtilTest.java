@@ -0,0 +1,48 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.listing.RoleName;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "sfgsdfg3546345dfgghnfu4678";
+
+    @Test
+    void verify_servesRepeatedTokensFromTheCache_andNeverCachesRejectedOnes() {
+        JwtUtil cached = jwtUtil(60_000L, 100);
+        String token = cached.create(new UserPrincipal(7L, "cached@test.com", RoleName.ROLE_USER));
+
+        Claims first = cached.verify(token);
+        assertSame(first, cached.verify(token));
+        assertEquals(7L, cached.getPrincipal(token).getId());
+
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+        assertThrows(SignatureException.class, () -> cached.verify(forged));
+        assertThrows(SignatureException.class, () -> cached.verify(forged));
+
+        JwtUtil uncached = jwtUtil(60_000L, 0);
+        assertNotSame(uncached.verify(token), uncached.verify(token));
+    }
+
+    @Test
+    void verify_rejectsExpiredTokens() throws InterruptedException {
+        JwtUtil expired = jwtUtil(0L, 100);
+        String token = expired.create("expired@test.com");
+        Thread.sleep(5);
+
+        assertThrows(ExpiredJwtException.class, () -> expired.verify(token));
+    }
+
+    private static JwtUtil jwtUtil(long ttlMillis, long cacheSize) {
+        return new JwtUtil(SECRET, "Main", ttlMillis, cacheSize, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    }
+}
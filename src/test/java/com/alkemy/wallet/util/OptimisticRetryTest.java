@@ -0,0 +1,53 @@
+package com.alkemy.wallet.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticRetry = new OptimisticRetry(3, Duration.ofMillis(1), Duration.ofMillis(5), meterRegistry);
+    }
+
+    @Test
+    void execute_retries_untilTheVersionCheckPasses() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticRetry.execute("makeTransaction", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Account", 1L);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2.0, meterRegistry.get("wallet.optimistic.retries").tag("operation", "makeTransaction")
+                .counter().count());
+    }
+
+    @Test
+    void execute_givesUp_afterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticRetry.execute("createDeposit", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Account", 1L);
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.get("wallet.optimistic.giveups").tag("operation", "createDeposit")
+                .counter().count());
+    }
+}
@@ -0,0 +1,109 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.dto.AccountDto;
+import com.alkemy.wallet.dto.BatchTransactionResultDto;
+import com.alkemy.wallet.dto.RequestTransactionDto;
+import com.alkemy.wallet.dto.ResponseTransactionDto;
+import com.alkemy.wallet.dto.TransferDto;
+import com.alkemy.wallet.exception.TransferPipelineUnavailableException;
+import com.alkemy.wallet.model.Money;
+import com.alkemy.wallet.service.interfaces.ITransferService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransferPipelineTest {
+
+    private ITransferService transferService;
+    private TransferPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        transferService = mock(ITransferService.class);
+        when(transferService.transferAll(anyList())).thenAnswer(invocation -> {
+            List<TransferDto> transfers = invocation.getArgument(0);
+            List<BatchTransactionResultDto> results = new ArrayList<>();
+            for (int i = 0; i < transfers.size(); i++) {
+                if (transfers.get(i).getTransaction().getAmount() == null) {
+                    throw new NullPointerException("amount");
+                }
+                ResponseTransactionDto transaction = new ResponseTransactionDto();
+                transaction.setAmount(transfers.get(i).getTransaction().getAmount());
+                results.add(BatchTransactionResultDto.succeeded(i, transaction));
+            }
+            return results;
+        });
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("transfer.pipeline.stopped.exception", Locale.ENGLISH, "stopped");
+        pipeline = new TransferPipeline(transferService, new AccountLockManager(8, meterRegistry),
+                new OptimisticRetry(3, Duration.ZERO, Duration.ZERO, meterRegistry), messageSource, meterRegistry,
+                true, 1, 16, Duration.ofMillis(200), 100, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void submit_commitsQueuedTransfersTogether() throws Exception {
+        List<CompletableFuture<BatchTransactionResultDto>> futures = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            futures.add(pipeline.submit(transfer(1L, Money.of(i))));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(Money.of(i + 1), futures.get(i).get(5, TimeUnit.SECONDS).getTransaction().getAmount());
+        }
+        verify(transferService, atMost(2)).transferAll(anyList());
+    }
+
+    @Test
+    void submit_isolatesTheTransferThatBreaksItsGroup() throws Exception {
+        CompletableFuture<BatchTransactionResultDto> good = pipeline.submit(transfer(1L, Money.of(10)));
+        CompletableFuture<BatchTransactionResultDto> broken = pipeline.submit(transfer(1L, null));
+
+        assertTrue(good.get(5, TimeUnit.SECONDS).isSuccessful());
+        assertThrows(Exception.class, () -> broken.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stop_commitsWhatIsQueued_andRefusesNewTransfers() throws Exception {
+        List<CompletableFuture<BatchTransactionResultDto>> queued = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            queued.add(pipeline.submit(transfer(1L, Money.of(i))));
+        }
+
+        pipeline.stop();
+
+        for (CompletableFuture<BatchTransactionResultDto> future : queued) {
+            assertTrue(future.get(5, TimeUnit.SECONDS).isSuccessful());
+        }
+        ExecutionException refused = assertThrows(ExecutionException.class,
+                () -> pipeline.submit(transfer(1L, Money.of(1))).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TransferPipelineUnavailableException.class, refused.getCause());
+    }
+
+    private TransferDto transfer(Long senderAccountId, Money amount) {
+        RequestTransactionDto transactionDto = new RequestTransactionDto();
+        transactionDto.setAmount(amount);
+        transactionDto.setAccount(AccountDto.builder().id(2L).build());
+        return new TransferDto(senderAccountId, transactionDto);
+    }
+}
@@ -0,0 +1,58 @@
+package com.alkemy.wallet.util;
+
+import com.alkemy.wallet.listing.RoleName;
+import com.alkemy.wallet.model.Role;
+import com.alkemy.wallet.model.User;
+import com.alkemy.wallet.repository.IUserRepository;
+import com.alkemy.wallet.service.CUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheTest {
+
+    private IUserRepository userRepository;
+    private UserCache userCache;
+    private CUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(IUserRepository.class);
+        userCache = new UserCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        userDetailsService = new CUserDetailsService(userRepository, mock(MessageSource.class), userCache);
+
+        Role role = new Role();
+        role.setName(RoleName.ROLE_USER);
+        User user = User.builder()
+                .id(3L)
+                .email("cached.login@test.com")
+                .password("{bcrypt}hash")
+                .role(role)
+                .build();
+        when(userRepository.findOptionalByEmail("cached.login@test.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void loadUserByUsername_hitsTheDatabaseOnce_andHandsOutIndependentCopies() {
+        UserPrincipal first = (UserPrincipal) userDetailsService.loadUserByUsername("cached.login@test.com");
+        first.eraseCredentials();
+        UserPrincipal second = (UserPrincipal) userDetailsService.loadUserByUsername("cached.login@test.com");
+
+        verify(userRepository, times(1)).findOptionalByEmail("cached.login@test.com");
+        assertNotSame(first, second);
+        assertEquals("{bcrypt}hash", second.getPassword());
+        assertSame(first.getAuthorities(), second.getAuthorities());
+        assertSame(first.getAuthorities(), new UserPrincipal(9L, "other@test.com", RoleName.ROLE_USER).getAuthorities());
+
+        userCache.evict("cached.login@test.com");
+        userDetailsService.loadUserByUsername("cached.login@test.com");
+        verify(userRepository, times(2)).findOptionalByEmail("cached.login@test.com");
+    }
+}